@@ -0,0 +1,23 @@
+-- 为已有库补充 sys_permission.tree_path 物化路径（MySQL 8.0+）
+-- 新库直接使用 init_database.sql 即可，无需执行本脚本
+
+USE `integrated-services-test`;
+
+ALTER TABLE `sys_permission`
+    ADD COLUMN `tree_path` VARCHAR(760) NOT NULL DEFAULT '' COMMENT '物化路径(/祖先ID/.../自身ID/)' AFTER `parent_id`,
+    ADD KEY `idx_tree_path` (`tree_path`);
+
+-- 依据 parent_id 回填（与 PermissionMapper.rebuildTreePaths 相同）
+WITH RECURSIVE tree (id, tree_path) AS (
+    SELECT id, CAST(CONCAT('/', id, '/') AS CHAR(760))
+    FROM sys_permission
+    WHERE parent_id IS NULL OR parent_id = 0
+    UNION ALL
+    SELECT c.id, CONCAT(t.tree_path, c.id, '/')
+    FROM sys_permission c
+    INNER JOIN tree t ON c.parent_id = t.id
+)
+UPDATE sys_permission p
+INNER JOIN tree t ON p.id = t.id
+SET p.tree_path = t.tree_path
+WHERE p.tree_path <> t.tree_path;
@@ -0,0 +1,22 @@
+-- 为已有库补充用户有效权限表 sys_user_permission 并回填
+-- 新库直接使用 init_database.sql 即可，无需执行本脚本
+
+USE `integrated-services-test`;
+
+CREATE TABLE IF NOT EXISTS `sys_user_permission` (
+    `user_id` BIGINT NOT NULL COMMENT '用户ID',
+    `permission_id` BIGINT NOT NULL COMMENT '权限ID',
+    `grant_count` INT NOT NULL DEFAULT 1 COMMENT '授予该权限的角色数',
+    PRIMARY KEY (`user_id`, `permission_id`),
+    KEY `idx_permission_id` (`permission_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户有效权限表';
+
+-- 依据用户角色、角色权限关联回填（与对账任务结果一致）
+INSERT INTO sys_user_permission (user_id, permission_id, grant_count)
+SELECT * FROM (
+    SELECT ur.user_id, rp.permission_id, COUNT(*) AS grant_count
+    FROM sys_user_role ur
+    INNER JOIN sys_role_permission rp ON rp.role_id = ur.role_id
+    GROUP BY ur.user_id, rp.permission_id
+) AS s
+ON DUPLICATE KEY UPDATE grant_count = s.grant_count;
@@ -39,6 +39,22 @@ public @interface RateLimit {
      */
     LimitType limitType() default LimitType.DEFAULT;
 
+    /**
+     * 限流算法
+     * <p>
+     * {@code CONCURRENCY} 时 {@link #count()} 为最大并发数，{@link #time()} 为单个许可的最长持有时间。
+     */
+    Algorithm algorithm() default Algorithm.FIXED_WINDOW;
+
+    /**
+     * 计数分片数（默认不分片）
+     * <p>
+     * 高频的全局限流键可设置为大于 1，窗口额度均分到多个 Redis 计数键，节点从随机分片开始租借、
+     * 用尽后再依次向其他分片租借，避免所有节点集中访问同一个键。全局不会多放行；
+     * 少放行不超过各节点已租未用的许可之和，详见 docs/rate-limit.md。
+     */
+    int shards() default 1;
+
     /**
      * 限流提示信息
      */
@@ -61,4 +77,26 @@ public @interface RateLimit {
          */
         USER
     }
+
+    /**
+     * 限流算法枚举（各算法的精度与 Redis 开销见 docs/rate-limit.md）
+     */
+    enum Algorithm {
+        /**
+         * 固定窗口计数，窗口交界处最多可放行两倍额度
+         */
+        FIXED_WINDOW,
+        /**
+         * 滑动窗口计数：按上一窗口计数加权估算，平滑窗口交界处的突发
+         */
+        SLIDING_WINDOW,
+        /**
+         * GCRA：按固定间隔匀速发放许可，允许不超过窗口额度的突发，每个键只保存一个时间戳
+         */
+        GCRA,
+        /**
+         * 在途并发数限制：请求开始时占用许可，结束时释放
+         */
+        CONCURRENCY
+    }
 }
@@ -3,6 +3,10 @@ package com.enterprise.integrated.aspect;
 import com.enterprise.integrated.annotation.RateLimit;
 import com.enterprise.integrated.common.exception.BusinessException;
 import com.enterprise.integrated.common.result.ResultCode;
+import com.enterprise.integrated.ratelimit.ConcurrencyLimiter;
+import com.enterprise.integrated.ratelimit.LeasedRateLimiter;
+import com.enterprise.integrated.ratelimit.RateLimitPlan;
+import com.enterprise.integrated.ratelimit.RateLimitPlanRegistry;
 import com.enterprise.integrated.security.UserDetailsServiceImpl;
 import com.enterprise.integrated.utils.IpUtils;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,17 +17,12 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.lang.reflect.Method;
-import java.util.Collections;
-
 /**
  * 限流AOP切面
  * 
@@ -36,27 +35,15 @@ public class RateLimitAspect {
 
     private static final Logger log = LoggerFactory.getLogger(RateLimitAspect.class);
 
-    private final RedisTemplate<String, Object> redisTemplate;
-
-    private static final String RATE_LIMIT_LUA_SCRIPT = 
-        "local key = KEYS[1]\n" +
-        "local count = tonumber(ARGV[1])\n" +
-        "local time = tonumber(ARGV[2])\n" +
-        "local current = redis.call('get', key)\n" +
-        "if current == false then\n" +
-        "    redis.call('set', key, 1)\n" +
-        "    redis.call('expire', key, time)\n" +
-        "    return 1\n" +
-        "else\n" +
-        "    if tonumber(current) < count then\n" +
-        "        return redis.call('incr', key)\n" +
-        "    else\n" +
-        "        return tonumber(current) + 1\n" +
-        "    end\n" +
-        "end";
+    private final RateLimitPlanRegistry rateLimitPlanRegistry;
+    private final LeasedRateLimiter leasedRateLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
 
-    public RateLimitAspect(RedisTemplate<String, Object> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    public RateLimitAspect(RateLimitPlanRegistry rateLimitPlanRegistry, LeasedRateLimiter leasedRateLimiter,
+                           ConcurrencyLimiter concurrencyLimiter) {
+        this.rateLimitPlanRegistry = rateLimitPlanRegistry;
+        this.leasedRateLimiter = leasedRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
     }
 
     /**
@@ -71,76 +58,56 @@ public class RateLimitAspect {
      */
     @Around("rateLimitPointcut()")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        RateLimitPlan plan = rateLimitPlanRegistry.planFor(((MethodSignature) joinPoint.getSignature()).getMethod());
 
         // 构建限流key
-        String key = buildRateLimitKey(rateLimit, method);
-        
-        // 执行限流检查
-        if (!checkRateLimit(key, rateLimit)) {
+        String key = plan.keyFor(limitDimension(plan.getLimitType()));
+
+        if (plan.getAlgorithm() == RateLimit.Algorithm.CONCURRENCY) {
+            return proceedWithConcurrencyLimit(joinPoint, key, plan);
+        }
+
+        // 执行限流检查（本地租约许可优先，用尽时再向 Redis 租借）
+        boolean allowed = leasedRateLimiter.tryAcquire(key, plan.getQuota());
+        plan.record(allowed);
+        if (!allowed) {
             log.warn("接口限流触发: {}", key);
-            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, rateLimit.message());
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, plan.getMessage());
         }
 
         return joinPoint.proceed();
     }
 
     /**
-     * 构建限流key
+     * 占用并发许可执行，结束（含异常）后释放
      */
-    private String buildRateLimitKey(RateLimit rateLimit, Method method) {
-        StringBuilder keyBuilder = new StringBuilder("rate_limit:");
-        
-        // 添加自定义key前缀
-        if (!rateLimit.key().isEmpty()) {
-            keyBuilder.append(rateLimit.key()).append(":");
-        } else {
-            // 默认使用类名和方法名
-            keyBuilder.append(method.getDeclaringClass().getSimpleName())
-                     .append(":")
-                     .append(method.getName())
-                     .append(":");
+    private Object proceedWithConcurrencyLimit(ProceedingJoinPoint joinPoint, String key, RateLimitPlan plan)
+            throws Throwable {
+        String permitId = concurrencyLimiter.tryAcquire(key, plan.getLimit(), plan.getWindowMs());
+        plan.record(permitId != null);
+        if (permitId == null) {
+            log.warn("接口并发限流触发: {}", key);
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, plan.getMessage());
         }
-
-        // 根据限流类型添加标识
-        switch (rateLimit.limitType()) {
-            case IP:
-                keyBuilder.append(getClientIpAddress());
-                break;
-            case USER:
-                keyBuilder.append(getCurrentUserId());
-                break;
-            case DEFAULT:
-            default:
-                keyBuilder.append("global");
-                break;
+        try {
+            return joinPoint.proceed();
+        } finally {
+            concurrencyLimiter.release(key, permitId);
         }
-
-        return keyBuilder.toString();
     }
 
     /**
-     * 检查限流
+     * 根据限流类型获取限流维度
      */
-    private boolean checkRateLimit(String key, RateLimit rateLimit) {
-        try {
-            DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
-            redisScript.setScriptText(RATE_LIMIT_LUA_SCRIPT);
-            redisScript.setResultType(Long.class);
-
-            long timeWindow = rateLimit.timeUnit().toSeconds(rateLimit.time());
-            Long result = redisTemplate.execute(redisScript, 
-                Collections.singletonList(key), 
-                rateLimit.count(), 
-                timeWindow);
-
-            return result != null && result <= rateLimit.count();
-        } catch (Exception e) {
-            log.error("限流检查异常", e);
-            // 异常情况下允许通过
-            return true;
+    private String limitDimension(RateLimit.LimitType limitType) {
+        switch (limitType) {
+            case IP:
+                return getClientIpAddress();
+            case USER:
+                return getCurrentUserId();
+            case DEFAULT:
+            default:
+                return "global";
         }
     }
 
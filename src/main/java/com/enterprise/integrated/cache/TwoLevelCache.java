@@ -0,0 +1,120 @@
+package com.enterprise.integrated.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 二级缓存：进程内 Caffeine（L1）+ Redis（L2）
+ * <p>
+ * 读取优先命中 L1，未命中时回源 L2 并回填 L1；写入与失效同时作用于两级，
+ * 并通过 {@link TwoLevelCacheManager} 广播给其他节点，使其 L1 失效。
+ * L1 键统一转换为字符串，与 Redis 缓存的键语义一致。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final org.springframework.cache.Cache remote;
+    private final Cache<String, Object> local;
+    private final TwoLevelCacheManager manager;
+
+    TwoLevelCache(String name,
+                  org.springframework.cache.Cache remote,
+                  Cache<String, Object> local,
+                  TwoLevelCacheManager manager) {
+        // 与 Redis 缓存配置保持一致：不缓存空值
+        super(false);
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        value = wrapper.get();
+        local.put(localKey, value);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // 同一节点上同一键只加载一次；L2 未命中时由 Redis 缓存调用 valueLoader
+        return (T) local.get(localKey(key), k -> remote.get(key, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        remote.put(key, value);
+        local.put(localKey(key), value);
+        manager.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        manager.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        local.invalidate(localKey(key));
+        manager.publishEvict(name, localKey(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        manager.publishClear(name);
+    }
+
+    /**
+     * 仅失效本节点 L1（收到其他节点广播时调用）
+     */
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    /**
+     * 仅清空本节点 L1（收到其他节点广播时调用）
+     */
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,123 @@
+package com.enterprise.integrated.cache;
+
+import com.enterprise.integrated.utils.RedisMessageSubscriber;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 二级缓存管理器
+ * <p>
+ * 在现有 Redis 缓存管理器之前增加按缓存名称配置大小与过期时间的进程内 L1。
+ * 任一节点的写入/失效都会通过 {@link #INVALIDATE_CHANNEL} 广播，其他节点收到后仅失效自身 L1，
+ * 从而保证各节点 L1 与 Redis 一致；节点忽略自己发出的消息。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    public static final String INVALIDATE_CHANNEL = "cache:invalidate";
+
+    /** 清空整个缓存时使用的键占位 */
+    private static final String CLEAR_ALL = "*";
+    private static final char SEPARATOR = '\n';
+
+    private final CacheManager remoteCacheManager;
+    private final TwoLevelCacheProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                TwoLevelCacheProperties properties,
+                                StringRedisTemplate stringRedisTemplate,
+                                RedisMessageSubscriber messageSubscriber,
+                                MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+        messageSubscriber.subscribe(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> createCache(n, remote));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // 消息格式：节点ID \n 缓存名称 \n 键（* 表示清空）
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (CLEAR_ALL.equals(parts[2])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[2]);
+        }
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(cacheName, key);
+    }
+
+    void publishClear(String cacheName) {
+        publish(cacheName, CLEAR_ALL);
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, nodeId + SEPARATOR + cacheName + SEPARATOR + key);
+        } catch (Exception e) {
+            log.warn("广播缓存失效失败: {} {}", cacheName, key, e);
+        }
+    }
+
+    private TwoLevelCache createCache(String name, Cache remote) {
+        TwoLevelCacheProperties.Spec spec = properties.specFor(name);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "l1." + name);
+        return new TwoLevelCache(name, remote, local, this);
+    }
+}
@@ -0,0 +1,89 @@
+package com.enterprise.integrated.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 二级缓存本地层（L1）配置
+ * <p>
+ * 未单独配置的缓存使用 default-spec。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+@ConfigurationProperties(prefix = "app.cache.l1")
+public class TwoLevelCacheProperties {
+
+    /** 是否启用本地缓存层，关闭时直接使用 Redis 缓存 */
+    private boolean enabled = true;
+
+    /** 默认规格 */
+    private Spec defaultSpec = new Spec();
+
+    /** 按缓存名称配置的规格 */
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    /**
+     * 获取指定缓存的规格
+     */
+    public Spec specFor(String cacheName) {
+        return caches.getOrDefault(cacheName, defaultSpec);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Spec getDefaultSpec() {
+        return defaultSpec;
+    }
+
+    public void setDefaultSpec(Spec defaultSpec) {
+        this.defaultSpec = defaultSpec;
+    }
+
+    public Map<String, Spec> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(Map<String, Spec> caches) {
+        this.caches = caches;
+    }
+
+    /**
+     * 单个缓存的本地层规格
+     */
+    public static class Spec {
+
+        /** 最大条目数 */
+        private long maximumSize = 1000;
+
+        /** 写入后存活时间（应不大于 Redis 层的过期时间） */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
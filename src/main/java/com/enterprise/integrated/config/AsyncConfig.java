@@ -1,5 +1,6 @@
 package com.enterprise.integrated.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -85,4 +86,77 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * 密码哈希线程池
+     * <p>
+     * BCrypt 为 CPU 密集型操作，使用独立且有界的线程池，队列满时立即拒绝（由调用方快速失败），
+     * 避免登录洪峰占满请求线程与 CPU，影响普通接口。
+     */
+    @Bean("passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${app.security.password-hash.threads:0}") int threads,
+            @Value("${app.security.password-hash.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        // 默认使用一半的CPU核数，保证其余核心可服务普通请求
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        // 拒绝策略：直接抛出异常，不回退到调用线程执行
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 批量任务线程池
+     * <p>
+     * 大批量 RBAC 任务分批执行，线程数有限以控制数据库写压力；队列满时拒绝，任务保留在库中由定时扫描重新提交。
+     * 关闭时不等待任务完成：执行中的任务在批次边界停止，重启后从断点继续。
+     */
+    @Bean("bulkJobExecutor")
+    public ThreadPoolTaskExecutor bulkJobExecutor(
+            @Value("${app.bulk-job.threads:2}") int threads,
+            @Value("${app.bulk-job.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.setAwaitTerminationSeconds(30);
+        
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 后台对账线程池
+     * <p>
+     * 全表对账耗时较长，不能占用定时调度线程（心跳、租借归还、版本同步等短周期任务依赖调度线程按时执行），
+     * 定时任务只负责提交到此线程池。单线程且不排队：上一次对账未结束时新的触发直接拒绝。
+     */
+    @Bean("reconcileExecutor")
+    public ThreadPoolTaskExecutor reconcileExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("reconcile-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.setAwaitTerminationSeconds(10);
+        
+        executor.initialize();
+        return executor;
+    }
 }
@@ -1,20 +1,51 @@
 package com.enterprise.integrated.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
  * 安全相关的独立密码配置
+ * <p>
+ * BCrypt 强度在启动时按目标耗时校准：以最小强度实测一次哈希耗时，
+ * 每提高 1 级耗时翻倍，取不超过目标耗时的最大强度（限制在 [min, max] 范围内）。
  */
 @Configuration
 public class PasswordConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(PasswordConfig.class);
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password-hash.strength:0}") int strength,
+            @Value("${app.security.password-hash.target-ms:250}") long targetMs,
+            @Value("${app.security.password-hash.min-strength:10}") int minStrength,
+            @Value("${app.security.password-hash.max-strength:14}") int maxStrength) {
+        int calibrated = strength > 0 ? strength : calibrateStrength(targetMs, minStrength, maxStrength);
+        return new BCryptPasswordEncoder(calibrated);
     }
-}
 
+    /**
+     * 按目标耗时校准 BCrypt 强度
+     */
+    static int calibrateStrength(long targetMs, int minStrength, int maxStrength) {
+        // 预热，避免首次执行的类加载与解释执行开销影响测量
+        for (int i = 0; i < 3; i++) {
+            BCrypt.hashpw("calibration", BCrypt.gensalt(4));
+        }
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", BCrypt.gensalt(minStrength));
+        double elapsedMs = Math.max(1.0, (System.nanoTime() - start) / 1_000_000.0);
 
+        int steps = (int) Math.floor(Math.log(targetMs / elapsedMs) / Math.log(2));
+        int strength = Math.min(maxStrength, Math.max(minStrength, minStrength + steps));
+        log.info("BCrypt强度校准完成: strength={}, 强度{}实测耗时{}ms, 目标耗时{}ms",
+                strength, minStrength, Math.round(elapsedMs), targetMs);
+        return strength;
+    }
+}
@@ -1,5 +1,9 @@
 package com.enterprise.integrated.config;
 
+import com.enterprise.integrated.cache.TwoLevelCacheManager;
+import com.enterprise.integrated.cache.TwoLevelCacheProperties;
+import com.enterprise.integrated.utils.RedisMessageSubscriber;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -8,6 +12,7 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -51,10 +56,14 @@ public class RedisConfig {
     }
 
     /**
-     * 缓存管理器配置
+     * 缓存管理器配置（进程内 L1 + Redis L2）
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     TwoLevelCacheProperties cacheProperties,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     RedisMessageSubscriber messageSubscriber,
+                                     MeterRegistry meterRegistry) {
         // 配置序列化
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(60)) // 默认缓存时间60分钟
@@ -62,8 +71,14 @@ public class RedisConfig {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new Jackson2JsonRedisSerializer<>(Object.class)))
                 .disableCachingNullValues(); // 不缓存空值
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
                 .build();
+        if (!cacheProperties.isEnabled()) {
+            return redisCacheManager;
+        }
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, cacheProperties, stringRedisTemplate,
+                messageSubscriber, meterRegistry);
     }
 }
@@ -1,9 +1,18 @@
 package com.enterprise.integrated.config;
 
+import com.enterprise.integrated.security.CompiledAuthorizationManager;
 import com.enterprise.integrated.security.JwtAuthenticationFilter;
+import com.enterprise.integrated.security.RouteAuthorizationManager;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -28,7 +37,7 @@ import org.springframework.beans.factory.annotation.Value;
  */
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity(prePostEnabled = true)
+@EnableMethodSecurity(prePostEnabled = false)
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
@@ -45,6 +54,19 @@ public class SecurityConfig {
 
     // PasswordEncoder 由 PasswordConfig 提供
 
+    /**
+     * {@code @PreAuthorize} 方法鉴权：使用预编译的权限位集合规则替代默认的逐次 SpEL 计算
+     * <p>
+     * 顾问在容器早期创建，鉴权管理器延迟获取，避免提前初始化数据访问相关的 Bean。
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAuthorizationAdvisor(ObjectProvider<CompiledAuthorizationManager> authorizationManager) {
+        AuthorizationManager<MethodInvocation> manager =
+                (authentication, invocation) -> authorizationManager.getObject().check(authentication, invocation);
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(manager);
+    }
+
     /**
      * 认证管理器
      */
@@ -57,7 +79,7 @@ public class SecurityConfig {
      * 安全过滤器链配置
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, RouteAuthorizationManager routeAuthorizationManager) throws Exception {
         ObjectMapper objectMapper = new ObjectMapper();
 
         AuthenticationEntryPoint authenticationEntryPoint = (request, response, authException) -> {
@@ -98,8 +120,10 @@ public class SecurityConfig {
                         } : new String[]{}).permitAll()
                         // 仅健康检查放行
                         .requestMatchers("/actuator/health").permitAll()
-                        // 其他所有请求需要认证
-                        .anyRequest().authenticated()
+                        // 限流规则与计数仅管理员可查看
+                        .requestMatchers("/actuator/ratelimits").hasRole("ADMIN")
+                        // 其他所有请求需要认证；启用动态接口鉴权时再按 sys_permission 配置的路径与方法校验权限
+                        .anyRequest().access(routeAuthorizationManager)
                 )
                 // 统一异常返回为JSON
                 .exceptionHandling(ex -> ex
@@ -1,6 +1,14 @@
 package com.enterprise.integrated.config;
 
+import com.enterprise.integrated.filter.EdgeRateLimitFilter;
 import com.enterprise.integrated.interceptor.RequestResponseLoggingInterceptor;
+import com.enterprise.integrated.ratelimit.ConcurrencyLimiter;
+import com.enterprise.integrated.ratelimit.EdgeRateLimitProperties;
+import com.enterprise.integrated.ratelimit.LeasedRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -33,4 +41,19 @@ public class WebMvcConfig implements WebMvcConfigurer {
                     "/doc.html"
                 );
     }
+
+    /**
+     * 边缘限流过滤器：排在 Spring Security 过滤器链之前，超限请求不进入认证流程
+     */
+    @Bean
+    public FilterRegistrationBean<EdgeRateLimitFilter> edgeRateLimitFilter(EdgeRateLimitProperties properties,
+                                                                           LeasedRateLimiter leasedRateLimiter,
+                                                                           ConcurrencyLimiter concurrencyLimiter,
+                                                                           ObjectMapper objectMapper) {
+        FilterRegistrationBean<EdgeRateLimitFilter> registration = new FilterRegistrationBean<>(
+                new EdgeRateLimitFilter(properties, leasedRateLimiter, concurrencyLimiter, objectMapper));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        registration.setEnabled(properties.isEnabled() && !properties.getRules().isEmpty());
+        return registration;
+    }
 }
@@ -45,6 +45,14 @@ public class AuthController {
         authService.logout(token);
     }
 
+    @PostMapping("/logout-all")
+    @Operation(summary = "登出所有设备", description = "吊销当前用户在所有设备上的令牌")
+    @PreAuthorize("isAuthenticated()")
+    @OperationLog(value = "登出所有设备", type = OperationLog.OperationType.LOGOUT)
+    public void logoutAll() {
+        authService.logoutAll();
+    }
+
     @Operation(summary = "刷新令牌", description = "使用刷新令牌获取新的访问令牌")
     @PostMapping("/refresh")
     @RateLimit(key = "refresh", count = 10, time = 60, limitType = RateLimit.LimitType.IP)
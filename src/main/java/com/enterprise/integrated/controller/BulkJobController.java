@@ -0,0 +1,65 @@
+package com.enterprise.integrated.controller;
+
+import com.enterprise.integrated.annotation.OperationLog;
+import com.enterprise.integrated.dto.BatchAssignUsersRequest;
+import com.enterprise.integrated.dto.BatchBindPermissionsRequest;
+import com.enterprise.integrated.dto.BulkJobDTO;
+import com.enterprise.integrated.entity.BulkJob;
+import com.enterprise.integrated.service.BulkJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "批量任务", description = "大批量角色分配/权限绑定的异步任务")
+@RestController
+@RequestMapping("/bulk-jobs")
+public class BulkJobController {
+
+    private final BulkJobService bulkJobService;
+
+    public BulkJobController(BulkJobService bulkJobService) {
+        this.bulkJobService = bulkJobService;
+    }
+
+    @Operation(summary = "异步批量为用户分配角色", description = "立即返回任务ID，后台分批执行")
+    @PostMapping("/roles/assign")
+    @PreAuthorize("hasAuthority('perm:system:role:assign') or hasRole('ADMIN')")
+    @OperationLog(value = "提交批量分配用户角色任务", type = OperationLog.OperationType.INSERT, recordParams = false)
+    public BulkJobDTO assignRoleToUsers(@Valid @RequestBody BatchAssignUsersRequest req) {
+        return bulkJobService.submit(BulkJob.JobType.ASSIGN_ROLE_USERS, req.getRoleId(), req.getUserIds());
+    }
+
+    @Operation(summary = "异步批量回收用户角色", description = "立即返回任务ID，后台分批执行")
+    @PostMapping("/roles/revoke")
+    @PreAuthorize("hasAuthority('perm:system:role:revoke') or hasRole('ADMIN')")
+    @OperationLog(value = "提交批量回收用户角色任务", type = OperationLog.OperationType.DELETE, recordParams = false)
+    public BulkJobDTO removeRoleFromUsers(@Valid @RequestBody BatchAssignUsersRequest req) {
+        return bulkJobService.submit(BulkJob.JobType.REVOKE_ROLE_USERS, req.getRoleId(), req.getUserIds());
+    }
+
+    @Operation(summary = "异步批量为角色绑定权限", description = "立即返回任务ID，后台分批执行")
+    @PostMapping("/roles/permissions/add")
+    @PreAuthorize("hasAuthority('perm:system:role:perm:add') or hasRole('ADMIN')")
+    @OperationLog(value = "提交批量绑定角色权限任务", type = OperationLog.OperationType.INSERT, recordParams = false)
+    public BulkJobDTO addPermissionsToRole(@Valid @RequestBody BatchBindPermissionsRequest req) {
+        return bulkJobService.submit(BulkJob.JobType.ADD_ROLE_PERMISSIONS, req.getRoleId(), req.getPermissionIds());
+    }
+
+    @Operation(summary = "异步批量移除角色权限", description = "立即返回任务ID，后台分批执行")
+    @PostMapping("/roles/permissions/remove")
+    @PreAuthorize("hasAuthority('perm:system:role:perm:remove') or hasRole('ADMIN')")
+    @OperationLog(value = "提交批量移除角色权限任务", type = OperationLog.OperationType.DELETE, recordParams = false)
+    public BulkJobDTO removePermissionsFromRole(@Valid @RequestBody BatchBindPermissionsRequest req) {
+        return bulkJobService.submit(BulkJob.JobType.REMOVE_ROLE_PERMISSIONS, req.getRoleId(), req.getPermissionIds());
+    }
+
+    @Operation(summary = "查询批量任务进度", description = "返回进度与已提交批次的累计结果")
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAuthority('perm:system:role:assign') or hasAuthority('perm:system:role:perm:add') or hasRole('ADMIN')")
+    public BulkJobDTO getJob(@PathVariable @NotNull Long id) {
+        return bulkJobService.getJob(id);
+    }
+}
@@ -77,6 +77,28 @@ public class MenuController {
         }
     }
 
+    @Operation(summary = "禁用菜单子树", description = "禁用菜单及其全部子孙节点")
+    @PatchMapping("/{id}/disable-subtree")
+    @PreAuthorize("hasAuthority('perm:system:menu:edit') or hasRole('ADMIN')")
+    @OperationLog(value = "禁用菜单子树", type = OperationLog.OperationType.UPDATE)
+    public void disableMenuSubtree(@PathVariable Long id) {
+        permissionService.disableMenuSubtree(id);
+    }
+
+    @Operation(summary = "导出菜单子树", description = "导出菜单及其全部子孙节点的树结构")
+    @GetMapping("/{id}/subtree")
+    @PreAuthorize("hasAuthority('perm:system:menu:query') or hasRole('ADMIN')")
+    public java.util.List<MenuNode> exportMenuSubtree(@PathVariable Long id) {
+        return permissionService.exportMenuSubtree(id);
+    }
+
+    @Operation(summary = "查询祖先菜单", description = "自根向下返回菜单的全部祖先节点（面包屑）")
+    @GetMapping("/{id}/ancestors")
+    @PreAuthorize("hasAuthority('perm:system:menu:query') or hasRole('ADMIN')")
+    public java.util.List<Permission> listMenuAncestors(@PathVariable Long id) {
+        return permissionService.listMenuAncestors(id);
+    }
+
     @Operation(summary = "移动菜单", description = "调整菜单父子关系与排序")
     @PatchMapping("/move")
     @PreAuthorize("hasAuthority('perm:system:menu:edit') or hasRole('ADMIN')")
@@ -35,6 +35,20 @@ public class BatchOperationResult {
             this.errorMessages.add(message);
         }
     }
+
+    /** 累加另一批次的结果（分批执行时汇总） */
+    public void merge(BatchOperationResult other) {
+        if (other == null) {
+            return;
+        }
+        this.totalCount += other.totalCount;
+        this.successCount += other.successCount;
+        this.skippedCount += other.skippedCount;
+        this.failedCount += other.failedCount;
+        this.invalidIds.addAll(other.invalidIds);
+        this.duplicatedIds.addAll(other.duplicatedIds);
+        this.errorMessages.addAll(other.errorMessages);
+    }
 }
 
 
@@ -35,6 +35,10 @@ public class LoginRequest implements Serializable {
     @Schema(description = "记住我")
     private Boolean rememberMe = false;
 
+    @Schema(description = "设备标识（同一用户多设备登录时区分会话，可选）", example = "web")
+    @Size(max = 64, message = "设备标识长度不能超过64个字符")
+    private String deviceId;
+
     // Getters and Setters
     public String getUsername() {
         return username;
@@ -67,4 +71,12 @@ public class LoginRequest implements Serializable {
     public void setRememberMe(Boolean rememberMe) {
         this.rememberMe = rememberMe;
     }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
 }
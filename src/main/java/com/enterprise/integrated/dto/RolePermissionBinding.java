@@ -0,0 +1,29 @@
+package com.enterprise.integrated.dto;
+
+/**
+ * 角色-权限绑定关系
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public class RolePermissionBinding {
+
+    private Long roleId;
+    private Long permissionId;
+
+    public Long getRoleId() {
+        return roleId;
+    }
+
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+
+    public Long getPermissionId() {
+        return permissionId;
+    }
+
+    public void setPermissionId(Long permissionId) {
+        this.permissionId = permissionId;
+    }
+}
@@ -38,6 +38,9 @@ public class Permission extends BaseEntity {
     @TableField("status")
     private Integer status;
 
+    @TableField("tree_path")
+    private String treePath;
+
     public String getPermissionName() {
         return permissionName;
     }
@@ -101,4 +104,12 @@ public class Permission extends BaseEntity {
     public void setSortOrder(Integer sortOrder) {
         this.sortOrder = sortOrder;
     }
+
+    public String getTreePath() {
+        return treePath;
+    }
+
+    public void setTreePath(String treePath) {
+        this.treePath = treePath;
+    }
 }
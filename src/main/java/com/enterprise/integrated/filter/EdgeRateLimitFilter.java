@@ -0,0 +1,173 @@
+package com.enterprise.integrated.filter;
+
+import com.enterprise.integrated.annotation.RateLimit;
+import com.enterprise.integrated.common.result.Result;
+import com.enterprise.integrated.common.result.ResultCode;
+import com.enterprise.integrated.ratelimit.ConcurrencyLimiter;
+import com.enterprise.integrated.ratelimit.EdgeRateLimitProperties;
+import com.enterprise.integrated.ratelimit.LeasedRateLimiter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 边缘限流过滤器
+ * <p>
+ * 注册在 Spring Security 过滤器链（含 {@code JwtAuthenticationFilter}）之前，按配置的 IP / 路径规则限流，
+ * 超限请求直接返回启动时预先序列化的 429 响应，不解析令牌、不加载用户与权限。
+ * 计数与 {@code @RateLimit} 共用 {@link LeasedRateLimiter}（本地租约许可优先，Redis 故障时按节点份额降级），
+ * 同一客户端持续超限时在本地即被拒绝，不访问 Redis。
+ * 按 IP 限流使用 {@link HttpServletRequest#getRemoteAddr()}，只有来自可信代理
+ * （{@code server.tomcat.remoteip.internal-proxies}）的请求才会由容器按 {@code X-Forwarded-For} 还原客户端地址，
+ * 客户端无法通过伪造请求头更换限流键。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public class EdgeRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(EdgeRateLimitFilter.class);
+
+    private final LeasedRateLimiter leasedRateLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final List<EdgeRule> rules;
+
+    public EdgeRateLimitFilter(EdgeRateLimitProperties properties,
+                               LeasedRateLimiter leasedRateLimiter,
+                               ConcurrencyLimiter concurrencyLimiter,
+                               ObjectMapper objectMapper) {
+        this.leasedRateLimiter = leasedRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        List<EdgeRule> compiled = new ArrayList<>();
+        for (EdgeRateLimitProperties.Rule rule : properties.getRules()) {
+            compiled.add(new EdgeRule(rule, objectMapper));
+        }
+        this.rules = List.copyOf(compiled);
+        log.info("边缘限流规则已加载，共 {} 条", rules.size());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        PathContainer path = null;
+        String ip = null;
+        List<String[]> permits = null;
+        for (EdgeRule rule : rules) {
+            if (!rule.matchesMethod(method)) {
+                continue;
+            }
+            if (path == null) {
+                path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+            }
+            if (!rule.pattern.matches(path)) {
+                continue;
+            }
+            if (rule.perIp && ip == null) {
+                // 不读取客户端可伪造的 X-Forwarded-For：可信代理的转发头由容器（server.forward-headers-strategy）解析
+                ip = request.getRemoteAddr();
+            }
+            String key = rule.keyPrefix.concat(rule.perIp ? ip : "global");
+            boolean allowed;
+            if (rule.algorithm == RateLimit.Algorithm.CONCURRENCY) {
+                String permitId = concurrencyLimiter.tryAcquire(key, rule.count, rule.windowMs);
+                allowed = permitId != null;
+                if (allowed) {
+                    if (permits == null) {
+                        permits = new ArrayList<>(2);
+                    }
+                    permits.add(new String[]{key, permitId});
+                }
+            } else {
+                allowed = leasedRateLimiter.tryAcquire(key, rule.quota);
+            }
+            if (!allowed) {
+                release(permits);
+                log.debug("边缘限流触发: {}", key);
+                reject(response, rule);
+                return;
+            }
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            release(permits);
+        }
+    }
+
+    private void release(List<String[]> permits) {
+        if (permits != null) {
+            for (String[] permit : permits) {
+                concurrencyLimiter.release(permit[0], permit[1]);
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, EdgeRule rule) throws IOException {
+        response.setStatus(ResultCode.TOO_MANY_REQUESTS.getCode());
+        response.setContentType("application/json;charset=UTF-8");
+        response.setContentLength(rule.rejectBody.length);
+        response.getOutputStream().write(rule.rejectBody);
+    }
+
+    /**
+     * 编译后的边缘限流规则
+     */
+    private static final class EdgeRule {
+        private final PathPattern pattern;
+        /** 大写的请求方法，为空表示所有方法 */
+        private final Set<String> methods;
+        private final String keyPrefix;
+        private final boolean perIp;
+        private final RateLimit.Algorithm algorithm;
+        private final int count;
+        private final long windowMs;
+        /** 租约限流的额度参数（并发数限制不使用） */
+        private final LeasedRateLimiter.Quota quota;
+        /** 预先序列化的 429 响应体（时间戳为启动时间） */
+        private final byte[] rejectBody;
+
+        private EdgeRule(EdgeRateLimitProperties.Rule rule, ObjectMapper objectMapper) {
+            if (rule.getLimitType() == RateLimit.LimitType.USER) {
+                throw new IllegalStateException("边缘限流在认证之前执行，不支持按用户限流: " + rule.getPath());
+            }
+            this.pattern = PathPatternParser.defaultInstance.parse(rule.getPath());
+            this.methods = rule.getMethods().stream()
+                    .map(m -> m.trim().toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            String name = rule.getName() == null || rule.getName().isBlank() ? rule.getPath() : rule.getName();
+            this.keyPrefix = ("rate_limit:edge:" + name + ":").intern();
+            this.perIp = rule.getLimitType() == RateLimit.LimitType.IP;
+            this.algorithm = rule.getAlgorithm();
+            this.count = rule.getCount();
+            this.windowMs = rule.getWindow().toMillis();
+            this.quota = new LeasedRateLimiter.Quota(count, windowMs, rule.getShards(), algorithm);
+            try {
+                this.rejectBody = objectMapper.writeValueAsBytes(
+                        Result.error(ResultCode.TOO_MANY_REQUESTS.getCode(), rule.getMessage()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("边缘限流响应序列化失败", e);
+            }
+        }
+
+        private boolean matchesMethod(String method) {
+            return methods.isEmpty() || methods.contains(method);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.enterprise.integrated.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.enterprise.integrated.entity.BulkJob;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量任务Mapper接口
+ * <p>
+ * 执行节点通过 owner + heartbeat_time 租约独占任务：所有状态推进语句都带 {@code owner = #{owner}} 条件，
+ * 影响行数为 0 表示租约已被其他节点接管。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Mapper
+public interface BulkJobMapper extends BaseMapper<BulkJob> {
+
+    /**
+     * 可恢复的任务：未完成，且属于本节点或心跳已过期
+     */
+    List<Long> listResumableIds(@Param("owner") String owner,
+                                @Param("staleBefore") LocalDateTime staleBefore,
+                                @Param("limit") int limit);
+
+    /**
+     * 抢占任务租约并标记为执行中
+     *
+     * @return 1 表示抢占成功
+     */
+    int claim(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * 推进断点并续约（与该批数据变更在同一事务中执行）
+     */
+    int updateProgress(@Param("id") Long id,
+                       @Param("owner") String owner,
+                       @Param("processedCount") int processedCount,
+                       @Param("result") String result,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * 结束任务
+     */
+    int finish(@Param("id") Long id,
+               @Param("owner") String owner,
+               @Param("status") String status,
+               @Param("errorMessage") String errorMessage,
+               @Param("now") LocalDateTime now);
+}
@@ -2,10 +2,13 @@ package com.enterprise.integrated.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.enterprise.integrated.dto.MenuSortItem;
 import com.enterprise.integrated.entity.Permission;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -18,6 +21,71 @@ public interface PermissionMapper extends BaseMapper<Permission> {
     IPage<Permission> pagePermissionsByUserId(IPage<?> page, @Param("userId") Long userId);
 
     IPage<Permission> pageMenusByUserId(IPage<?> page, @Param("userId") Long userId);
+
+    /**
+     * 按物化路径前缀查询整棵子树（含自身）的ID
+     */
+    List<Long> listSubtreeIds(@Param("treePath") String treePath);
+
+    /**
+     * 按物化路径前缀查询整棵子树（含自身）
+     */
+    List<Permission> listSubtree(@Param("treePath") String treePath);
+
+    /**
+     * 按 id 顺序锁定菜单行（SELECT ... FOR UPDATE），返回锁定后读取的最新数据
+     */
+    List<Permission> listForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 子树整体移动：将所有以 oldPrefix 开头的路径替换为 newPrefix 开头（含已删除节点，保持路径一致）
+     */
+    int updateTreePathPrefix(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix);
+
+    /**
+     * 依据 parent_id 重建全部物化路径（历史数据回填）
+     */
+    int rebuildTreePaths();
+
+    /**
+     * 查询全部未删除的权限编码（启动时预先编号）
+     */
+    List<String> listPermissionCodes();
+
+    /**
+     * 查询全部生效的接口访问规则（非菜单、启用、未删除且配置了路径的权限）
+     */
+    List<Permission> listRouteRules();
+
+    /**
+     * 接口访问规则指纹（非菜单权限的行数、最大 id 与规则相关列的校验和，含已删除/禁用行），用于判断是否需要重建路由索引
+     */
+    String findRouteRulesFingerprint();
+
+    /**
+     * 批量筛选存在且启用的权限ID（单批不超过 1000）
+     */
+    List<Long> listAvailableIds(@Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * 批量查询排序值（仅 id、sort_order 两列）
+     */
+    List<Permission> listSortOrdersByIds(@Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * 单条 CASE 语句批量更新排序（单批不超过 1000）
+     */
+    int updateSortOrders(@Param("items") Collection<MenuSortItem> items, @Param("updateTime") LocalDateTime updateTime);
+
+    /**
+     * 批量逻辑删除（单批不超过 1000）
+     */
+    int updateDeletedByIds(@Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * 批量更新状态（单批不超过 1000）
+     */
+    int updateStatusByIds(@Param("permissionIds") Collection<Long> permissionIds, @Param("status") Integer status);
 }
 
 
@@ -16,6 +16,11 @@ public interface RoleMapper extends BaseMapper<Role> {
     List<Long> findUserIdsByRoleId(@Param("roleId") Long roleId);
 
     IPage<Role> pageRolesByUserId(IPage<?> page, @Param("userId") Long userId);
+
+    List<String> listRoleCodes();
+
+    /** 锁定角色行（SELECT ... FOR UPDATE），串行化同一角色的关联变更 */
+    Long findIdForUpdate(@Param("roleId") Long roleId);
 }
 
 
@@ -18,6 +18,12 @@ public interface RolePermissionMapper {
 
     /** 仅判断存在性，效率高于 COUNT */
     boolean existsRolePermission(@Param("roleId") Long roleId, @Param("permissionId") Long permissionId);
+
+    /** 给定权限中角色已拥有的权限ID（单批不超过 1000） */
+    java.util.List<Long> listPermissionIdsByRoleId(@Param("roleId") Long roleId, @Param("permissionIds") java.util.Collection<Long> permissionIds);
+
+    /** 全部角色与可用菜单的绑定关系（用于构建菜单快照） */
+    java.util.List<com.enterprise.integrated.dto.RolePermissionBinding> listMenuBindings();
 }
 
 
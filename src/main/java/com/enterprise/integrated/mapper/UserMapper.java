@@ -37,4 +37,20 @@ public interface UserMapper extends BaseMapper<User> {
      * @return 用户信息
      */
     User findByPhone(@Param("phone") String phone);
+
+    /**
+     * 根据ID查询用户状态（仅 id、username、status、deleted，包含已删除用户）
+     * 
+     * @param id 用户ID
+     * @return 用户状态信息
+     */
+    User findStatusById(@Param("id") Long id);
+
+    /**
+     * 批量筛选存在且启用的用户ID（单批不超过 1000）
+     *
+     * @param userIds 用户ID
+     * @return 其中可用的用户ID
+     */
+    java.util.List<Long> listAvailableIds(@Param("userIds") java.util.Collection<Long> userIds);
 }
@@ -0,0 +1,37 @@
+package com.enterprise.integrated.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 用户有效权限（sys_user_permission）维护
+ * <p>
+ * grant_count 为授予该权限的角色数；以下增量方法均限定在单个角色内，
+ * userIds / permissionIds 为 null 时不按该维度过滤（单批不超过 1000）。
+ */
+@Mapper
+public interface UserPermissionMapper {
+
+    /** 角色新增用户或权限后调用（关联已写入）：对应的 (用户, 权限) 计数 +1 */
+    int addRoleGrants(@Param("roleId") Long roleId,
+                      @Param("userIds") java.util.Collection<Long> userIds,
+                      @Param("permissionIds") java.util.Collection<Long> permissionIds);
+
+    /** 角色移除用户或权限前调用（关联尚未删除）：对应的 (用户, 权限) 计数 -1 */
+    int removeRoleGrants(@Param("roleId") Long roleId,
+                         @Param("userIds") java.util.Collection<Long> userIds,
+                         @Param("permissionIds") java.util.Collection<Long> permissionIds);
+
+    /** 删除计数归零的记录 */
+    int deleteEmptyGrants(@Param("userIds") java.util.Collection<Long> userIds,
+                          @Param("permissionIds") java.util.Collection<Long> permissionIds);
+
+    /** 对账：游标之后的用户ID（出现在用户角色或有效权限中的用户，升序） */
+    java.util.List<Long> listReconcileUserIds(@Param("afterUserId") Long afterUserId, @Param("limit") int limit);
+
+    /** 对账：按用户角色、角色权限关联重新计算区间内用户的计数 */
+    int reconcileGrants(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+
+    /** 对账：删除区间内已无角色授予的记录 */
+    int deleteStaleGrants(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+}
@@ -18,6 +18,13 @@ public interface UserRoleMapper {
 
     /** 仅判断存在性，效率高于 COUNT */
     boolean existsUserRole(@Param("userId") Long userId, @Param("roleId") Long roleId);
+
+    /** 给定用户中已拥有该角色的用户ID（单批不超过 1000） */
+    java.util.List<Long> listUserIdsByRoleId(@Param("roleId") Long roleId, @Param("userIds") java.util.Collection<Long> userIds);
+
+    int addRoleUsersBatch(@Param("roleId") Long roleId, @Param("userIds") java.util.Collection<Long> userIds);
+
+    int removeRoleUsersBatch(@Param("roleId") Long roleId, @Param("userIds") java.util.Collection<Long> userIds);
 }
 
 
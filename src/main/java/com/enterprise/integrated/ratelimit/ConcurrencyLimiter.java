@@ -0,0 +1,105 @@
+package com.enterprise.integrated.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 在途并发数限制器
+ * <p>
+ * 每个键对应一个有序集合，成员为在途许可ID、分值为最长持有期限（Redis 服务器时间）；
+ * 获取时先清理过期许可再判断数量，请求结束时移除许可。持有者异常退出未释放时，
+ * 许可在最长持有期限后自动失效，不会永久占用并发额度。每个请求固定两次 Redis 调用（获取、释放）。
+ * Redis 访问失败或熔断期间改由 {@link LocalFallbackLimiter} 按节点份额在本地计数。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimiter.class);
+
+    /**
+     * 本地降级计数的许可ID
+     */
+    private static final String LOCAL_PERMIT = "local";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final LocalFallbackLimiter fallbackLimiter;
+
+    public ConcurrencyLimiter(StringRedisTemplate stringRedisTemplate,
+                              RedisCircuitBreaker circuitBreaker,
+                              LocalFallbackLimiter fallbackLimiter) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.fallbackLimiter = fallbackLimiter;
+    }
+
+    /**
+     * 尝试获取一个并发许可
+     *
+     * @param key 限流键
+     * @param limit 最大并发数
+     * @param maxHoldMs 单个许可的最长持有时间（毫秒）
+     * @return 许可ID（释放时使用）；并发已满时返回 null
+     */
+    public String tryAcquire(String key, int limit, long maxHoldMs) {
+        if (limit <= 0) {
+            return null;
+        }
+        if (!circuitBreaker.allowRequest()) {
+            return acquireLocal(key, limit);
+        }
+        String permitId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        try {
+            Long acquired = stringRedisTemplate.execute(RateLimitScripts.CONCURRENCY_ACQUIRE,
+                    Collections.singletonList(concurrencyKey(key)),
+                    String.valueOf(limit), String.valueOf(Math.max(1, maxHoldMs)), permitId);
+            circuitBreaker.recordSuccess();
+            return acquired != null && acquired == 1 ? permitId : null;
+        } catch (Exception e) {
+            circuitBreaker.recordFailure(e);
+            log.warn("并发限流检查异常，本次按本地份额限流: {} {}", key, e.getMessage());
+            return acquireLocal(key, limit);
+        }
+    }
+
+    /**
+     * 释放并发许可
+     *
+     * @param key 限流键
+     * @param permitId 许可ID
+     */
+    public void release(String key, String permitId) {
+        if (permitId == null) {
+            return;
+        }
+        if (LOCAL_PERMIT.equals(permitId)) {
+            fallbackLimiter.releaseConcurrency(key);
+            return;
+        }
+        if (circuitBreaker.isOpen()) {
+            // 熔断期间不等待 Redis 超时，许可到期后自动失效
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForZSet().remove(concurrencyKey(key), permitId);
+        } catch (Exception e) {
+            log.warn("释放并发许可失败（到期后自动失效）: {}", key, e);
+        }
+    }
+
+    private String acquireLocal(String key, int limit) {
+        return fallbackLimiter.tryAcquireConcurrency(key, limit) ? LOCAL_PERMIT : null;
+    }
+
+    private static String concurrencyKey(String key) {
+        return key + ":inflight";
+    }
+}
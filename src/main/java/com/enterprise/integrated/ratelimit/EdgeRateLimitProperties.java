@@ -0,0 +1,147 @@
+package com.enterprise.integrated.ratelimit;
+
+import com.enterprise.integrated.annotation.RateLimit;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 边缘限流配置（在 Spring Security 过滤器链之前按 IP / 路径限流）
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit.edge")
+public class EdgeRateLimitProperties {
+
+    /** 是否启用边缘限流 */
+    private boolean enabled = true;
+
+    /** 限流规则，请求匹配的所有规则都需通过 */
+    private List<Rule> rules = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * 单条边缘限流规则
+     */
+    public static class Rule {
+
+        /** 规则名称（作为限流键的一部分，默认取路径） */
+        private String name;
+
+        /** 路径模式（不含 context-path），如 {@code /auth/**} */
+        private String path = "/**";
+
+        /** 请求方法，为空表示所有方法 */
+        private List<String> methods = new ArrayList<>();
+
+        /** 限流维度：IP 或 DEFAULT（全局）；认证前无法识别用户，不支持 USER */
+        private RateLimit.LimitType limitType = RateLimit.LimitType.IP;
+
+        /** 限流算法 */
+        private RateLimit.Algorithm algorithm = RateLimit.Algorithm.FIXED_WINDOW;
+
+        /** 窗口内允许的次数（并发数限制时为最大并发数） */
+        private int count = 100;
+
+        /** 窗口长度（并发数限制时为单个许可的最长持有时间） */
+        private Duration window = Duration.ofSeconds(60);
+
+        /** 计数分片数 */
+        private int shards = 1;
+
+        /** 限流提示信息 */
+        private String message = "访问过于频繁，请稍后再试";
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public RateLimit.LimitType getLimitType() {
+            return limitType;
+        }
+
+        public void setLimitType(RateLimit.LimitType limitType) {
+            this.limitType = limitType;
+        }
+
+        public RateLimit.Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(RateLimit.Algorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            this.shards = shards;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.enterprise.integrated.ratelimit;
+
+import com.enterprise.integrated.annotation.RateLimit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * 两级限流器：进程内令牌桶 + Redis 租约
+ * <p>
+ * 全局额度记录在 Redis 中，节点以“租约”方式批量领取许可，存入本地令牌桶；本地还有许可时直接扣减，
+ * 不访问 Redis，只有本地用尽时才执行一次租借脚本。租借量从 1 开始逐次翻倍（慢启动），
+ * 上限为额度的 {@code 1/lease-divisor}，因此低频键每次请求仍按单个许可租借，结果与逐次计数一致。
+ * Redis 侧的额度算法可选固定窗口、滑动窗口或 GCRA（见 {@link RateLimit.Algorithm}），三者共用同一套租约机制。
+ * <p>
+ * Redis 的累计租出量不会超过额度，全局不会多放行；误差只来自已租出但未使用的许可（少放行），
+ * 空闲超过 {@code idle-return-ms} 的本地许可会被定时归还，额度已用尽时按 {@code retry-interval-ms}
+ * 间隔重试租借，以便领取其他节点归还的许可或新释放的额度。
+ * Redis 访问失败或 {@link RedisCircuitBreaker} 熔断期间，改由 {@link LocalFallbackLimiter} 按节点份额在本地限流，
+ * 恢复后自动切换回来。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class LeasedRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(LeasedRateLimiter.class);
+
+    /** 窗口键过期时间在窗口结束后额外保留的毫秒数（容忍节点间时钟偏差） */
+    private static final long EXPIRE_SLACK_MS = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final LocalFallbackLimiter fallbackLimiter;
+    private final int leaseDivisor;
+    private final long retryIntervalMs;
+    private final long idleReturnMs;
+    private final Cache<BucketKey, LocalBucket> buckets;
+    /** 毫秒时钟（窗口划分与空闲判断） */
+    private final LongSupplier clock;
+
+    @Autowired
+    public LeasedRateLimiter(StringRedisTemplate stringRedisTemplate,
+                             RedisCircuitBreaker circuitBreaker,
+                             LocalFallbackLimiter fallbackLimiter,
+                             @Value("${app.rate-limit.lease-divisor:10}") int leaseDivisor,
+                             @Value("${app.rate-limit.retry-interval-ms:100}") long retryIntervalMs,
+                             @Value("${app.rate-limit.idle-return-ms:1000}") long idleReturnMs,
+                             @Value("${app.rate-limit.max-keys:100000}") long maxKeys) {
+        this(stringRedisTemplate, circuitBreaker, fallbackLimiter, leaseDivisor, retryIntervalMs, idleReturnMs, maxKeys,
+                System::currentTimeMillis);
+    }
+
+    LeasedRateLimiter(StringRedisTemplate stringRedisTemplate, RedisCircuitBreaker circuitBreaker,
+                      LocalFallbackLimiter fallbackLimiter, int leaseDivisor, long retryIntervalMs, long idleReturnMs,
+                      long maxKeys, LongSupplier clock) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.fallbackLimiter = fallbackLimiter;
+        this.leaseDivisor = Math.max(1, leaseDivisor);
+        this.retryIntervalMs = Math.max(0, retryIntervalMs);
+        this.idleReturnMs = Math.max(0, idleReturnMs);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.clock = clock;
+    }
+
+    /**
+     * 尝试获取一个许可（固定窗口）
+     *
+     * @param key 限流键
+     * @param limit 窗口内允许的次数
+     * @param windowMs 窗口长度（毫秒）
+     * @param shards 计数分片数
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String key, int limit, long windowMs, int shards) {
+        return tryAcquire(key, limit, windowMs, shards, RateLimit.Algorithm.FIXED_WINDOW);
+    }
+
+    /**
+     * 尝试获取一个许可
+     * <p>
+     * {@code shards > 1} 时额度均分到 N 个计数键（分片 i 的额度为 {@code limit / N}，余数分给前几个分片），
+     * 各节点从随机选定的分片开始租借，该分片用尽后依次向其他分片租借，全部用尽才拒绝。
+     * 各分片额度之和等于 {@code limit}，因此全局仍不会多放行；少放行的上界与不分片时相同，
+     * 为各节点已租未用的许可之和（每节点不超过单次租借上限）。分片数超过 {@code limit} 时按 {@code limit} 计。
+     *
+     * @param key 限流键
+     * @param limit 窗口内允许的次数
+     * @param windowMs 窗口长度（毫秒）
+     * @param shards 计数分片数
+     * @param algorithm 额度算法（{@code CONCURRENCY} 由 {@link ConcurrencyLimiter} 处理）
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String key, int limit, long windowMs, int shards, RateLimit.Algorithm algorithm) {
+        return tryAcquire(key, new Quota(limit, windowMs, shards, algorithm));
+    }
+
+    /**
+     * 按预先构建的额度参数尝试获取一个许可（语义同 {@link #tryAcquire(String, int, long, int, RateLimit.Algorithm)}）
+     * <p>
+     * 限流计划与边缘规则在启动时构建 {@link Quota}，请求路径上不再拼接本地令牌桶的键，只做一次缓存查找。
+     *
+     * @param key 限流键
+     * @param quota 额度参数
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String key, Quota quota) {
+        int limit = quota.limit;
+        if (limit <= 0) {
+            return false;
+        }
+        if (quota.algorithm == RateLimit.Algorithm.CONCURRENCY) {
+            throw new IllegalArgumentException("并发数限制请使用 ConcurrencyLimiter");
+        }
+        long window = quota.windowMs;
+        LocalBucket bucket = buckets.get(new BucketKey(key, quota),
+                k -> new LocalBucket(key, window, quota.shardCount, quota.algorithm));
+        long now = clock.getAsLong();
+        synchronized (bucket) {
+            bucket.roll(bucket.windowed() ? now / window : 0);
+            bucket.lastAccess = now;
+            bucket.limit = limit;
+            if (bucket.available > 0) {
+                bucket.available--;
+                return true;
+            }
+            if (now < bucket.exhaustedUntil) {
+                return false;
+            }
+            if (!circuitBreaker.allowRequest()) {
+                return fallbackLimiter.tryAcquire(key, limit, window);
+            }
+            long granted;
+            try {
+                granted = leaseFromShards(bucket, now);
+                circuitBreaker.recordSuccess();
+            } catch (Exception e) {
+                circuitBreaker.recordFailure(e);
+                log.warn("限流租借异常，本次按本地份额限流: {} {}", key, e.getMessage());
+                return fallbackLimiter.tryAcquire(key, limit, window);
+            }
+            if (granted <= 0) {
+                long retryAt = now + retryIntervalMs;
+                bucket.exhaustedUntil = bucket.algorithm == RateLimit.Algorithm.FIXED_WINDOW
+                        ? Math.min(retryAt, (bucket.windowId + 1) * window) : retryAt;
+                return false;
+            }
+            bucket.available = granted - 1;
+            return true;
+        }
+    }
+
+    /**
+     * 定时归还空闲键的剩余许可，减少已租出未使用造成的少放行
+     */
+    @Scheduled(initialDelayString = "${app.rate-limit.reconcile-interval-ms:1000}",
+            fixedDelayString = "${app.rate-limit.reconcile-interval-ms:1000}")
+    public void returnIdleLeases() {
+        if (circuitBreaker.isOpen()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        for (LocalBucket bucket : buckets.asMap().values()) {
+            long windowId;
+            int shard;
+            int shardLimit;
+            long unused;
+            synchronized (bucket) {
+                // 已跨窗口的许可随旧计数键过期，无需归还
+                if (bucket.available <= 0 || now - bucket.lastAccess < idleReturnMs
+                        || (bucket.windowed() && bucket.windowId != now / bucket.windowMs)) {
+                    continue;
+                }
+                windowId = bucket.windowId;
+                shard = bucket.shard;
+                shardLimit = bucket.shardLimit(shard);
+                unused = bucket.available;
+                bucket.available = 0;
+                bucket.nextLease = 1;
+            }
+            try {
+                release(bucket, shard, shardLimit, windowId, unused);
+            } catch (Exception e) {
+                log.debug("归还限流许可失败: {}", bucket.key, e);
+            }
+        }
+    }
+
+    /**
+     * 统计本节点指定前缀下的本地令牌桶
+     *
+     * @param keyPrefix 限流键前缀
+     * @return 活跃键数量与本地剩余的已租许可数
+     */
+    public LocalUsage localUsage(String keyPrefix) {
+        int keys = 0;
+        long permits = 0;
+        for (LocalBucket bucket : buckets.asMap().values()) {
+            if (bucket.key.startsWith(keyPrefix)) {
+                keys++;
+                synchronized (bucket) {
+                    permits += bucket.available;
+                }
+            }
+        }
+        return new LocalUsage(keys, permits);
+    }
+
+    /**
+     * 从当前分片开始依次租借，成功的分片作为下次的起始分片
+     */
+    private long leaseFromShards(LocalBucket bucket, long now) {
+        int shardCount = bucket.shardCount;
+        for (int attempt = 0; attempt < shardCount; attempt++) {
+            int shard = (bucket.shard + attempt) % shardCount;
+            int shardLimit = bucket.shardLimit(shard);
+            int maxChunk = Math.max(1, shardLimit / leaseDivisor);
+            long granted = lease(bucket, shard, shardLimit, Math.min(bucket.nextLease, maxChunk), now);
+            if (granted > 0) {
+                bucket.shard = shard;
+                bucket.nextLease = Math.min(maxChunk, bucket.nextLease * 2);
+                return granted;
+            }
+        }
+        return 0;
+    }
+
+    private long lease(LocalBucket bucket, int shard, int limit, long want, long now) {
+        Long granted;
+        switch (bucket.algorithm) {
+            case SLIDING_WINDOW -> {
+                long elapsed = now - bucket.windowId * bucket.windowMs;
+                double previousWeight = (double) (bucket.windowMs - elapsed) / bucket.windowMs;
+                // 当前窗口的计数在下一窗口仍作为“上一窗口”参与估算，保留两个窗口
+                long expireMs = (bucket.windowId + 2) * bucket.windowMs - now + EXPIRE_SLACK_MS;
+                granted = stringRedisTemplate.execute(RateLimitScripts.SLIDING_LEASE,
+                        Arrays.asList(windowKey(bucket, shard, bucket.windowId),
+                                windowKey(bucket, shard, bucket.windowId - 1)),
+                        String.valueOf(limit), String.valueOf(want), String.valueOf(previousWeight),
+                        String.valueOf(expireMs));
+            }
+            case GCRA -> granted = stringRedisTemplate.execute(RateLimitScripts.GCRA_LEASE,
+                    Collections.singletonList(gcraKey(bucket, shard)),
+                    String.valueOf(emissionIntervalMicros(bucket, limit)), String.valueOf(bucket.windowMs * 1000),
+                    String.valueOf(want));
+            default -> {
+                long expireMs = (bucket.windowId + 1) * bucket.windowMs - now + EXPIRE_SLACK_MS;
+                granted = stringRedisTemplate.execute(RateLimitScripts.LEASE,
+                        Collections.singletonList(windowKey(bucket, shard, bucket.windowId)),
+                        String.valueOf(limit), String.valueOf(want), String.valueOf(expireMs));
+            }
+        }
+        return granted == null ? 0 : granted;
+    }
+
+    private void release(LocalBucket bucket, int shard, int shardLimit, long windowId, long unused) {
+        if (bucket.algorithm == RateLimit.Algorithm.GCRA) {
+            stringRedisTemplate.execute(RateLimitScripts.GCRA_RELEASE, Collections.singletonList(gcraKey(bucket, shard)),
+                    String.valueOf(unused), String.valueOf(emissionIntervalMicros(bucket, shardLimit)));
+        } else {
+            stringRedisTemplate.execute(RateLimitScripts.RELEASE,
+                    Collections.singletonList(windowKey(bucket, shard, windowId)), String.valueOf(unused));
+        }
+    }
+
+    /**
+     * GCRA 发放间隔（微秒）
+     */
+    private static double emissionIntervalMicros(LocalBucket bucket, int limit) {
+        return bucket.windowMs * 1000.0 / limit;
+    }
+
+    private static String shardKey(LocalBucket bucket, int shard) {
+        return bucket.shardCount == 1 ? bucket.key : bucket.key + ":s" + shard;
+    }
+
+    /**
+     * 窗口计数键：不分片为 {@code key:窗口号}，分片为 {@code key:s分片号:窗口号}；
+     * 滑动窗口同时访问相邻两个窗口的键，使用 hash tag 使其落在同一个集群槽
+     */
+    private static String windowKey(LocalBucket bucket, int shard, long windowId) {
+        return bucket.algorithm == RateLimit.Algorithm.SLIDING_WINDOW
+                ? "{" + shardKey(bucket, shard) + "}:sw:" + windowId
+                : shardKey(bucket, shard) + ":" + windowId;
+    }
+
+    private static String gcraKey(LocalBucket bucket, int shard) {
+        return shardKey(bucket, shard) + ":gcra";
+    }
+
+    /**
+     * 额度参数（不可变，由限流计划或边缘规则在启动时构建）
+     * <p>
+     * 窗口长度与分片数已规范化；窗口、分片数与算法相同的额度共用同一个本地令牌桶，额度本身不参与区分。
+     */
+    public static final class Quota {
+        private final int limit;
+        private final long windowMs;
+        private final int shardCount;
+        private final RateLimit.Algorithm algorithm;
+        private final int bucketHash;
+
+        /**
+         * @param limit 窗口内允许的次数
+         * @param windowMs 窗口长度（毫秒）
+         * @param shards 计数分片数（超过 {@code limit} 时按 {@code limit} 计）
+         * @param algorithm 额度算法
+         */
+        public Quota(int limit, long windowMs, int shards, RateLimit.Algorithm algorithm) {
+            this.limit = limit;
+            this.windowMs = Math.max(1, windowMs);
+            this.shardCount = Math.max(1, Math.min(shards, limit));
+            this.algorithm = algorithm;
+            this.bucketHash = Objects.hash(this.windowMs, shardCount, algorithm);
+        }
+
+        private boolean sameBucket(Quota other) {
+            return other == this
+                    || (windowMs == other.windowMs && shardCount == other.shardCount && algorithm == other.algorithm);
+        }
+    }
+
+    /**
+     * 本地令牌桶缓存键：限流键 + 额度参数（复用字符串已缓存的哈希值，不拼接新字符串）
+     */
+    private static final class BucketKey {
+        private final String key;
+        private final Quota quota;
+
+        private BucketKey(String key, Quota quota) {
+            this.key = key;
+            this.quota = quota;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BucketKey)) {
+                return false;
+            }
+            BucketKey other = (BucketKey) o;
+            return key.equals(other.key) && quota.sameBucket(other.quota);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + quota.bucketHash;
+        }
+    }
+
+    /**
+     * 本节点的本地令牌桶统计
+     */
+    public static final class LocalUsage {
+        private final int activeKeys;
+        private final long leasedPermits;
+
+        private LocalUsage(int activeKeys, long leasedPermits) {
+            this.activeKeys = activeKeys;
+            this.leasedPermits = leasedPermits;
+        }
+
+        public int getActiveKeys() {
+            return activeKeys;
+        }
+
+        public long getLeasedPermits() {
+            return leasedPermits;
+        }
+    }
+
+    /**
+     * 单个键在本节点的令牌桶（按对象加锁访问）
+     */
+    private static final class LocalBucket {
+        private final String key;
+        private final long windowMs;
+        private final int shardCount;
+        private final RateLimit.Algorithm algorithm;
+        /** 额度（来自注解，同一个键保持不变） */
+        private int limit;
+        /** 当前租借的分片（本地剩余许可属于该分片） */
+        private int shard;
+        /** 当前窗口号（GCRA 不分窗口，恒为 0） */
+        private long windowId = -1;
+        /** 本地剩余的已租许可 */
+        private long available;
+        /** 下次租借数量（慢启动） */
+        private long nextLease = 1;
+        /** 额度用尽后，在此时间前不再租借 */
+        private long exhaustedUntil;
+        private long lastAccess;
+
+        private LocalBucket(String key, long windowMs, int shardCount, RateLimit.Algorithm algorithm) {
+            this.key = key;
+            this.windowMs = windowMs;
+            this.shardCount = shardCount;
+            this.algorithm = algorithm;
+            // 各节点从不同分片开始，分散对单个计数键的访问
+            this.shard = shardCount == 1 ? 0 : ThreadLocalRandom.current().nextInt(shardCount);
+        }
+
+        private boolean windowed() {
+            return algorithm != RateLimit.Algorithm.GCRA;
+        }
+
+        /**
+         * 分片额度：{@code limit / N}，余数分给前几个分片
+         */
+        private int shardLimit(int shard) {
+            return limit / shardCount + (shard < limit % shardCount ? 1 : 0);
+        }
+
+        /**
+         * 进入新窗口时丢弃上一窗口的许可（上一窗口的计数键随之过期）
+         */
+        private void roll(long currentWindowId) {
+            if (currentWindowId != windowId) {
+                windowId = currentWindowId;
+                available = 0;
+                nextLease = 1;
+                exhaustedUntil = 0;
+            }
+        }
+    }
+}
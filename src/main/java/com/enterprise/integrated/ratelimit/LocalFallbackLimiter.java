@@ -0,0 +1,168 @@
+package com.enterprise.integrated.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Redis 不可用时的本地降级限流
+ * <p>
+ * 各节点定时在 Redis 中登记心跳并获取存活节点数；Redis 故障（{@link RedisCircuitBreaker} 熔断）期间，
+ * 每个节点按 {@code ceil(limit / 节点数)} 的份额在本地限流（按纪元对齐的固定窗口；
+ * 滑动窗口与 GCRA 也按固定窗口降级），全局放行量约为原额度，不超过 {@code limit + 节点数 - 1}。
+ * 节点数取最近一次成功心跳的结果，从未成功时使用 {@code assumed-nodes}。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class LocalFallbackLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalFallbackLimiter.class);
+
+    private static final String NODES_KEY = "rate_limit:nodes";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final long nodeTimeoutMs;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Cache<String, LocalWindow> windows;
+    private final ConcurrentMap<String, Integer> inFlight = new ConcurrentHashMap<>();
+    private volatile int knownNodes;
+
+    public LocalFallbackLimiter(StringRedisTemplate stringRedisTemplate,
+                                RedisCircuitBreaker circuitBreaker,
+                                @Value("${app.rate-limit.fallback.heartbeat-interval-ms:5000}") long heartbeatIntervalMs,
+                                @Value("${app.rate-limit.fallback.assumed-nodes:1}") int assumedNodes,
+                                @Value("${app.rate-limit.max-keys:100000}") long maxKeys) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        // 连续错过 3 次心跳视为节点下线
+        this.nodeTimeoutMs = Math.max(1, heartbeatIntervalMs) * 3;
+        this.knownNodes = Math.max(1, assumedNodes);
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * 本地降级：按节点份额获取一个许可
+     *
+     * @param key 限流键
+     * @param limit 全局额度
+     * @param windowMs 窗口长度（毫秒）
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String key, int limit, long windowMs) {
+        long window = Math.max(1, windowMs);
+        LocalWindow counter = windows.get(key + ":" + window, k -> new LocalWindow());
+        long windowId = System.currentTimeMillis() / window;
+        synchronized (counter) {
+            if (counter.windowId != windowId) {
+                counter.windowId = windowId;
+                counter.count = 0;
+            }
+            if (counter.count >= nodeShare(limit)) {
+                return false;
+            }
+            counter.count++;
+            return true;
+        }
+    }
+
+    /**
+     * 本地降级：按节点份额占用一个并发许可
+     *
+     * @param key 限流键
+     * @param limit 全局并发上限
+     * @return 是否获取成功
+     */
+    public boolean tryAcquireConcurrency(String key, int limit) {
+        int share = nodeShare(limit);
+        boolean[] acquired = new boolean[1];
+        inFlight.compute(key, (k, current) -> {
+            int count = current == null ? 0 : current;
+            acquired[0] = count < share;
+            return acquired[0] ? count + 1 : current;
+        });
+        return acquired[0];
+    }
+
+    /**
+     * 释放本地并发许可
+     *
+     * @param key 限流键
+     */
+    public void releaseConcurrency(String key) {
+        inFlight.computeIfPresent(key, (k, current) -> current <= 1 ? null : current - 1);
+    }
+
+    /**
+     * 本节点份额：{@code ceil(limit / 节点数)}，至少 1
+     */
+    public int nodeShare(int limit) {
+        int nodes = knownNodes;
+        return Math.max(1, (limit + nodes - 1) / nodes);
+    }
+
+    /**
+     * 已知的存活节点数
+     */
+    public int getKnownNodes() {
+        return knownNodes;
+    }
+
+    /**
+     * 节点心跳（熔断期间兼作恢复探测）
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.rate-limit.fallback.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        if (!circuitBreaker.allowRequest()) {
+            return;
+        }
+        try {
+            Long nodes = stringRedisTemplate.execute(RateLimitScripts.NODE_HEARTBEAT,
+                    Collections.singletonList(NODES_KEY), nodeId, String.valueOf(nodeTimeoutMs));
+            circuitBreaker.recordSuccess();
+            if (nodes != null && nodes > 0 && nodes != knownNodes) {
+                log.info("限流节点数变更: {} -> {}", knownNodes, nodes);
+                knownNodes = nodes.intValue();
+            }
+        } catch (Exception e) {
+            circuitBreaker.recordFailure(e);
+        }
+    }
+
+    @PreDestroy
+    public void unregister() {
+        if (circuitBreaker.isOpen()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForZSet().remove(NODES_KEY, nodeId);
+        } catch (Exception e) {
+            log.debug("注销限流节点失败", e);
+        }
+    }
+
+    /**
+     * 单个键在本节点的降级计数窗口（按对象加锁访问）
+     */
+    private static final class LocalWindow {
+        private long windowId = -1;
+        private int count;
+    }
+}
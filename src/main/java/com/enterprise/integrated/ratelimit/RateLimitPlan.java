@@ -0,0 +1,122 @@
+package com.enterprise.integrated.ratelimit;
+
+import com.enterprise.integrated.annotation.RateLimit;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限流计划：启动时由 {@link RateLimit} 注解编译而成（不可变）
+ * <p>
+ * 保存键前缀（{@code rate_limit:<key 或 类名:方法名>:}，已驻留）、换算好的窗口毫秒数与算法等参数（及对应的租约额度），
+ * 切面执行时只需拼接限流维度（IP、用户ID 或 global）；放行与拒绝计数供监控端点读取。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public final class RateLimitPlan {
+
+    private final String name;
+    private final String keyPrefix;
+    private final int limit;
+    private final long windowMs;
+    private final int shards;
+    private final RateLimit.Algorithm algorithm;
+    /** 租约限流的额度参数（并发数限制不使用） */
+    private final LeasedRateLimiter.Quota quota;
+    private final RateLimit.LimitType limitType;
+    private final String message;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private RateLimitPlan(String name, String keyPrefix, RateLimit rateLimit) {
+        this.name = name;
+        this.keyPrefix = keyPrefix;
+        this.limit = rateLimit.count();
+        this.windowMs = rateLimit.timeUnit().toMillis(rateLimit.time());
+        this.shards = rateLimit.shards();
+        this.algorithm = rateLimit.algorithm();
+        this.quota = new LeasedRateLimiter.Quota(limit, windowMs, shards, algorithm);
+        this.limitType = rateLimit.limitType();
+        this.message = rateLimit.message();
+    }
+
+    /**
+     * 编译方法上的限流注解
+     *
+     * @param method 方法
+     * @param rateLimit 注解
+     * @return 限流计划
+     */
+    public static RateLimitPlan compile(Method method, RateLimit rateLimit) {
+        String name = method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+        // 默认使用类名和方法名
+        String prefix = rateLimit.key().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + ":" + method.getName()
+                : rateLimit.key();
+        return new RateLimitPlan(name, ("rate_limit:" + prefix + ":").intern(), rateLimit);
+    }
+
+    /**
+     * 生成限流键
+     *
+     * @param dimension 限流维度（IP、用户ID 或 global）
+     * @return 限流键
+     */
+    public String keyFor(String dimension) {
+        return keyPrefix.concat(dimension);
+    }
+
+    /**
+     * 记录一次检查结果
+     *
+     * @param allowed 是否放行
+     */
+    public void record(boolean allowed) {
+        (allowed ? admitted : rejected).increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public RateLimit.Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public LeasedRateLimiter.Quota getQuota() {
+        return quota;
+    }
+
+    public RateLimit.LimitType getLimitType() {
+        return limitType;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
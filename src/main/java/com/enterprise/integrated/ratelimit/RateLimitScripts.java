@@ -0,0 +1,148 @@
+package com.enterprise.integrated.ratelimit;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * 限流 Lua 脚本
+ * <p>
+ * 脚本实例全局唯一并预先计算 SHA1，执行时优先 EVALSHA，脚本未缓存时自动回退为 EVAL，
+ * 不再每次调用都构建新的脚本对象。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public final class RateLimitScripts {
+
+    /**
+     * 固定窗口：从窗口的剩余额度中租借一批许可
+     * <p>
+     * KEYS[1] 窗口计数键；ARGV[1] 窗口上限；ARGV[2] 期望租借数；ARGV[3] 键过期毫秒数。
+     * 返回实际租借数（0 表示窗口额度已用尽），累计租出量不会超过上限。
+     */
+    public static final RedisScript<Long> LEASE = script(
+            "local used = tonumber(redis.call('get', KEYS[1]) or '0')\n" +
+            "local grant = math.min(tonumber(ARGV[2]), tonumber(ARGV[1]) - used)\n" +
+            "if grant <= 0 then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "if redis.call('incrby', KEYS[1], grant) == grant then\n" +
+            "    redis.call('pexpire', KEYS[1], ARGV[3])\n" +
+            "end\n" +
+            "return grant");
+
+    /**
+     * 归还未使用的许可（窗口键已过期时忽略）
+     * <p>
+     * KEYS[1] 窗口计数键；ARGV[1] 归还数量。返回归还后的计数，键不存在时返回 -1。
+     */
+    public static final RedisScript<Long> RELEASE = script(
+            "if redis.call('exists', KEYS[1]) == 0 then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "local left = redis.call('decrby', KEYS[1], ARGV[1])\n" +
+            "if left < 0 then\n" +
+            "    redis.call('set', KEYS[1], 0, 'KEEPTTL')\n" +
+            "    return 0\n" +
+            "end\n" +
+            "return left");
+
+    /**
+     * 滑动窗口计数：按上一窗口计数的剩余权重估算当前滑动窗口内的请求数，从剩余额度中租借
+     * <p>
+     * KEYS[1] 当前窗口计数键；KEYS[2] 上一窗口计数键；ARGV[1] 上限；ARGV[2] 期望租借数；
+     * ARGV[3] 上一窗口权重（0~1，即上一窗口仍落在滑动窗口内的比例）；ARGV[4] 当前窗口键过期毫秒数。
+     * 返回实际租借数。
+     */
+    public static final RedisScript<Long> SLIDING_LEASE = script(
+            "local current = tonumber(redis.call('get', KEYS[1]) or '0')\n" +
+            "local previous = tonumber(redis.call('get', KEYS[2]) or '0')\n" +
+            "local estimated = previous * tonumber(ARGV[3]) + current\n" +
+            "local grant = math.min(tonumber(ARGV[2]), math.floor(tonumber(ARGV[1]) - estimated))\n" +
+            "if grant <= 0 then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "if redis.call('incrby', KEYS[1], grant) == grant then\n" +
+            "    redis.call('pexpire', KEYS[1], ARGV[4])\n" +
+            "end\n" +
+            "return grant");
+
+    /**
+     * GCRA（通用信元速率算法）：每个键只保存理论到达时间（TAT，微秒），按 Redis 服务器时间计算
+     * <p>
+     * KEYS[1] 键；ARGV[1] 发放间隔（微秒，窗口 / 上限）；ARGV[2] 突发容量（微秒，即窗口长度）；ARGV[3] 期望租借数。
+     * 返回实际租借数；键在 TAT 到达后自动过期。
+     */
+    public static final RedisScript<Long> GCRA_LEASE = script(
+            "local time = redis.call('time')\n" +
+            "local now = tonumber(time[1]) * 1000000 + tonumber(time[2])\n" +
+            "local interval = tonumber(ARGV[1])\n" +
+            "local tat = math.max(tonumber(redis.call('get', KEYS[1]) or '0'), now)\n" +
+            "local grant = math.min(tonumber(ARGV[3]), math.floor((now + tonumber(ARGV[2]) - tat) / interval))\n" +
+            "if grant <= 0 then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "tat = tat + grant * interval\n" +
+            "redis.call('set', KEYS[1], string.format('%.0f', tat), 'PX', math.ceil((tat - now) / 1000))\n" +
+            "return grant");
+
+    /**
+     * GCRA 归还未使用的许可：TAT 回退相应的发放间隔（不早于当前时间）
+     * <p>
+     * KEYS[1] 键；ARGV[1] 归还数量；ARGV[2] 发放间隔（微秒）。键不存在时返回 -1。
+     */
+    public static final RedisScript<Long> GCRA_RELEASE = script(
+            "local stored = redis.call('get', KEYS[1])\n" +
+            "if not stored then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "local time = redis.call('time')\n" +
+            "local now = tonumber(time[1]) * 1000000 + tonumber(time[2])\n" +
+            "local tat = tonumber(stored) - tonumber(ARGV[1]) * tonumber(ARGV[2])\n" +
+            "if tat <= now then\n" +
+            "    redis.call('del', KEYS[1])\n" +
+            "    return 0\n" +
+            "end\n" +
+            "redis.call('set', KEYS[1], string.format('%.0f', tat), 'PX', math.ceil((tat - now) / 1000))\n" +
+            "return 1");
+
+    /**
+     * 并发数限制：有序集合保存在途许可（成员为许可ID，分值为最长持有期限），先清理过期许可再判断
+     * <p>
+     * KEYS[1] 键；ARGV[1] 并发上限；ARGV[2] 最长持有毫秒数；ARGV[3] 许可ID。返回 1 获取成功，0 已满。
+     * 持有者异常退出未释放时，许可在最长持有期限后自动失效。
+     */
+    public static final RedisScript<Long> CONCURRENCY_ACQUIRE = script(
+            "local time = redis.call('time')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+            "redis.call('zremrangebyscore', KEYS[1], '-inf', now)\n" +
+            "if redis.call('zcard', KEYS[1]) >= tonumber(ARGV[1]) then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "redis.call('zadd', KEYS[1], now + tonumber(ARGV[2]), ARGV[3])\n" +
+            "redis.call('pexpire', KEYS[1], ARGV[2])\n" +
+            "return 1");
+
+    /**
+     * 节点心跳：登记本节点并清理超时节点，返回当前存活节点数
+     * <p>
+     * KEYS[1] 节点有序集合；ARGV[1] 节点ID；ARGV[2] 超时毫秒数。分值为 Redis 服务器时间（毫秒）。
+     */
+    public static final RedisScript<Long> NODE_HEARTBEAT = script(
+            "local time = redis.call('time')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+            "redis.call('zadd', KEYS[1], now, ARGV[1])\n" +
+            "redis.call('zremrangebyscore', KEYS[1], '-inf', now - tonumber(ARGV[2]))\n" +
+            "redis.call('pexpire', KEYS[1], ARGV[2])\n" +
+            "return redis.call('zcard', KEYS[1])");
+
+    private RateLimitScripts() {
+    }
+
+    private static RedisScript<Long> script(String text) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>(text, Long.class);
+        // 提前计算 SHA1，避免首次调用时计算
+        script.getSha1();
+        return script;
+    }
+}
@@ -0,0 +1,97 @@
+package com.enterprise.integrated.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 限流 Redis 访问熔断器
+ * <p>
+ * 连续失败达到阈值后熔断，熔断期间限流不再访问 Redis（请求无需等待 Redis 超时），改由
+ * {@link LocalFallbackLimiter} 在本地按节点份额限流；熔断时间到后只放行一次探测调用
+ * （请求或节点心跳），成功即恢复，失败则重新计时。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class RedisCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    private final int failureThreshold;
+    private final long openMs;
+    private volatile int consecutiveFailures;
+    /** 熔断截止时间，0 表示未熔断 */
+    private volatile long openUntil;
+    private boolean probing;
+
+    public RedisCircuitBreaker(@Value("${app.rate-limit.fallback.failure-threshold:3}") int failureThreshold,
+                               @Value("${app.rate-limit.fallback.open-ms:5000}") long openMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = Math.max(0, openMs);
+    }
+
+    /**
+     * 是否可以访问 Redis
+     *
+     * @return 未熔断，或熔断时间已到且当前调用被选为探测调用时返回 true
+     */
+    public boolean allowRequest() {
+        if (openUntil == 0) {
+            return true;
+        }
+        synchronized (this) {
+            if (openUntil == 0) {
+                return true;
+            }
+            if (probing || System.currentTimeMillis() < openUntil) {
+                return false;
+            }
+            probing = true;
+            return true;
+        }
+    }
+
+    /**
+     * 记录一次成功调用
+     */
+    public void recordSuccess() {
+        if (openUntil == 0 && consecutiveFailures == 0) {
+            return;
+        }
+        synchronized (this) {
+            consecutiveFailures = 0;
+            probing = false;
+            if (openUntil != 0) {
+                openUntil = 0;
+                log.info("Redis 已恢复，限流切换回全局计数");
+            }
+        }
+    }
+
+    /**
+     * 记录一次失败调用
+     *
+     * @param e 异常
+     */
+    public synchronized void recordFailure(Exception e) {
+        consecutiveFailures++;
+        if (probing) {
+            probing = false;
+            openUntil = System.currentTimeMillis() + openMs;
+            log.warn("Redis 探测失败，限流继续使用本地降级: {}", e.getMessage());
+        } else if (openUntil == 0 && consecutiveFailures >= failureThreshold) {
+            openUntil = System.currentTimeMillis() + openMs;
+            log.error("Redis 连续 {} 次访问失败，限流切换为本地降级", consecutiveFailures, e);
+        }
+    }
+
+    /**
+     * 是否处于熔断状态
+     */
+    public boolean isOpen() {
+        return openUntil != 0;
+    }
+}
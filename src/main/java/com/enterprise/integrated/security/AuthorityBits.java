@@ -0,0 +1,71 @@
+package com.enterprise.integrated.security;
+
+/**
+ * 权限位集合（不可变）
+ * <p>
+ * 第 i 位表示拥有 {@link PermissionInterner} 编号为 i 的权限。
+ * 既用于表示用户拥有的权限，也用于表示方法要求的“任一权限”掩码，
+ * 鉴权即两者按 64 位字逐字求与，不涉及字符串比较与哈希查找。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public final class AuthorityBits {
+
+    public static final AuthorityBits EMPTY = new AuthorityBits(new long[0]);
+
+    private final long[] words;
+
+    private AuthorityBits(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * 由编号构建位集合
+     *
+     * @param ids 权限编号（负数被忽略）
+     * @return 位集合
+     */
+    public static AuthorityBits of(int... ids) {
+        int max = -1;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        if (max < 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(max >>> 6) + 1];
+        for (int id : ids) {
+            if (id >= 0) {
+                words[id >>> 6] |= 1L << id;
+            }
+        }
+        return new AuthorityBits(words);
+    }
+
+    /**
+     * 是否拥有指定编号的权限
+     */
+    public boolean contains(int id) {
+        int word = id >>> 6;
+        return id >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    /**
+     * 是否与另一位集合存在交集（即拥有掩码中的任一权限）
+     */
+    public boolean intersects(AuthorityBits other) {
+        long[] a = words;
+        long[] b = other.words;
+        for (int i = Math.min(a.length, b.length) - 1; i >= 0; i--) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+}
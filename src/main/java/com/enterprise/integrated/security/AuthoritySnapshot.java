@@ -0,0 +1,95 @@
+package com.enterprise.integrated.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 用户权限快照（不可变）
+ * <p>
+ * 一次性计算用户的角色与权限点，按用户缓存复用；version 为生成快照时的全局权限版本号，
+ * 版本落后于当前全局版本的快照视为过期。
+ * roleSignature 为升序角色ID的规范化摘要，角色集合相同的用户共享同一签名（用于共享可见菜单树缓存）。
+ * authorityBits 为权限的编号位集合，供预编译的方法鉴权规则按位判断。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public final class AuthoritySnapshot {
+
+    private final Long userId;
+    private final long version;
+    private final List<Long> roleIds;
+    private final List<GrantedAuthority> authorities;
+    private final String roleSignature;
+    private final AuthorityBits authorityBits;
+
+    public AuthoritySnapshot(Long userId, long version, List<Long> roleIds, List<GrantedAuthority> authorities,
+                             AuthorityBits authorityBits) {
+        this.userId = userId;
+        this.version = version;
+        this.roleIds = List.copyOf(roleIds);
+        this.authorities = List.copyOf(authorities);
+        this.roleSignature = signatureOf(this.roleIds);
+        this.authorityBits = authorityBits;
+    }
+
+    /**
+     * 计算角色集合签名：升序角色ID以逗号连接后取 SHA-256 前 16 字节的十六进制
+     *
+     * @param sortedRoleIds 升序角色ID
+     * @return 签名
+     */
+    public static String signatureOf(List<Long> sortedRoleIds) {
+        if (sortedRoleIds.isEmpty()) {
+            return "none";
+        }
+        StringBuilder joined = new StringBuilder();
+        for (Long roleId : sortedRoleIds) {
+            joined.append(roleId).append(',');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(joined.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 用户拥有的可用角色ID（升序）
+     */
+    public List<Long> getRoleIds() {
+        return roleIds;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * 角色集合签名
+     */
+    public String getRoleSignature() {
+        return roleSignature;
+    }
+
+    /**
+     * 权限编号位集合
+     */
+    public AuthorityBits getAuthorityBits() {
+        return authorityBits;
+    }
+}
@@ -0,0 +1,238 @@
+package com.enterprise.integrated.security;
+
+import com.enterprise.integrated.cache.InvalidationCoalescer;
+import com.enterprise.integrated.entity.Permission;
+import com.enterprise.integrated.entity.Role;
+import com.enterprise.integrated.mapper.PermissionMapper;
+import com.enterprise.integrated.mapper.RoleMapper;
+import com.enterprise.integrated.utils.BatchUtils;
+import com.enterprise.integrated.utils.RedisMessageSubscriber;
+import com.enterprise.integrated.utils.TransactionUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户权限快照服务
+ * <p>
+ * 按用户在本地缓存不可变的 {@link AuthoritySnapshot}，稳态下鉴权不再访问数据库。
+ * 失效方式：
+ * <ul>
+ *     <li>用户-角色变化：按用户失效，并通过 Redis 发布/订阅广播给其他节点；同时递增全局版本号，
+ *     广播消息丢失（如订阅重连期间）时，其他节点最迟在下次版本同步后丢弃旧快照；</li>
+ *     <li>角色-权限或权限本身变化：递增 Redis 中的全局版本号并广播，版本落后的快照在下次访问时重新计算。</li>
+ * </ul>
+ * 所有失效均在事务提交后执行：本节点按用户的失效立即生效，广播与版本号递增经 {@link InvalidationCoalescer}
+ * 合并后异步执行（短时间内的多次权限调整只递增一次版本号）。另外定期从 Redis 同步全局版本号，弥补可能丢失的广播消息。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class AuthoritySnapshotService implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthoritySnapshotService.class);
+
+    public static final String VERSION_KEY = "auth:authority:version";
+    public static final String CHANGED_CHANNEL = "auth:authority:changed";
+
+    private static final String USER_MESSAGE_PREFIX = "user:";
+    private static final String VERSION_MESSAGE_PREFIX = "version:";
+
+    private final RoleMapper roleMapper;
+    private final PermissionMapper permissionMapper;
+    private final PermissionInterner permissionInterner;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<Long, AuthoritySnapshot> snapshots;
+    private final AtomicLong currentVersion = new AtomicLong();
+    private final InvalidationCoalescer.Queue<Long> changedUsers;
+    private final InvalidationCoalescer.Queue<Boolean> versionBumps;
+
+    public AuthoritySnapshotService(RoleMapper roleMapper,
+                                    PermissionMapper permissionMapper,
+                                    PermissionInterner permissionInterner,
+                                    StringRedisTemplate stringRedisTemplate,
+                                    RedisMessageSubscriber messageSubscriber,
+                                    InvalidationCoalescer invalidationCoalescer,
+                                    @Value("${app.security.authority-cache.max-size:50000}") long maxSize,
+                                    @Value("${app.security.authority-cache.ttl-seconds:1800}") long ttlSeconds) {
+        this.roleMapper = roleMapper;
+        this.permissionMapper = permissionMapper;
+        this.permissionInterner = permissionInterner;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.changedUsers = invalidationCoalescer.newQueue("authority-users", this::publishUsers);
+        this.versionBumps = invalidationCoalescer.newQueue("authority-version", bumps -> bumpVersion());
+        messageSubscriber.subscribe(this, new ChannelTopic(CHANGED_CHANNEL));
+    }
+
+    /**
+     * 获取用户权限快照（命中且版本有效时不访问数据库）
+     *
+     * @param userId 用户ID
+     * @return 权限快照
+     */
+    public AuthoritySnapshot getSnapshot(Long userId) {
+        AuthoritySnapshot snapshot = snapshots.get(userId, this::load);
+        if (snapshot.getVersion() < currentVersion.get()) {
+            snapshots.asMap().remove(userId, snapshot);
+            snapshot = snapshots.get(userId, this::load);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 用户-角色关系变化后调用（事务提交后生效）
+     */
+    public void onUserChanged(Long userId) {
+        if (userId != null) {
+            onUsersChanged(List.of(userId));
+        }
+    }
+
+    /**
+     * 批量用户-角色关系变化后调用（事务提交后生效）
+     */
+    public void onUsersChanged(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(userIds);
+        TransactionUtils.afterCommit(() -> {
+            snapshots.invalidateAll(ids);
+            changedUsers.addAll(ids);
+        });
+    }
+
+    /**
+     * 角色-权限关系或权限本身变化后调用：递增全局版本号（事务提交后生效）
+     */
+    public void onPermissionsChanged() {
+        TransactionUtils.afterCommit(() -> versionBumps.add(Boolean.TRUE));
+    }
+
+    private void bumpVersion() {
+        long version;
+        try {
+            Long next = stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+            version = next == null ? currentVersion.get() + 1 : next;
+        } catch (Exception e) {
+            log.warn("递增权限版本号失败，仅本节点生效", e);
+            version = currentVersion.get() + 1;
+        }
+        advanceVersion(version);
+        publish(VERSION_MESSAGE_PREFIX + version);
+    }
+
+    /**
+     * 广播用户失效，大批量用户按批拆分为多条消息；随后递增全局版本号（与权限变更一起合并），
+     * 作为广播丢失时的兜底
+     */
+    private void publishUsers(Set<Long> userIds) {
+        for (List<Long> batch : BatchUtils.partition(userIds)) {
+            StringJoiner joiner = new StringJoiner(",", USER_MESSAGE_PREFIX, "");
+            batch.forEach(id -> joiner.add(String.valueOf(id)));
+            publish(joiner.toString());
+        }
+        versionBumps.add(Boolean.TRUE);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            if (body.startsWith(VERSION_MESSAGE_PREFIX)) {
+                advanceVersion(Long.parseLong(body.substring(VERSION_MESSAGE_PREFIX.length())));
+            } else if (body.startsWith(USER_MESSAGE_PREFIX)) {
+                for (String id : body.substring(USER_MESSAGE_PREFIX.length()).split(",")) {
+                    snapshots.invalidate(Long.valueOf(id));
+                }
+            }
+        } catch (NumberFormatException e) {
+            log.warn("忽略无法解析的权限变更消息: {}", body);
+        }
+    }
+
+    /**
+     * 启动时及定期从 Redis 同步全局版本号
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = 60000, fixedDelay = 60000)
+    public void syncVersion() {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+            if (value != null) {
+                advanceVersion(Long.parseLong(value));
+            }
+        } catch (Exception e) {
+            log.debug("同步权限版本号失败: {}", e.getMessage());
+        }
+    }
+
+    private void advanceVersion(long version) {
+        currentVersion.accumulateAndGet(version, Math::max);
+    }
+
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANGED_CHANNEL, message);
+        } catch (Exception e) {
+            log.warn("广播权限变更失败: {}", message, e);
+        }
+    }
+
+    private AuthoritySnapshot load(Long userId) {
+        // 先读取版本号再查询，加载期间发生的变更会使该快照在下次访问时被判定为过期
+        long version = currentVersion.get();
+        List<Long> roleIds = new ArrayList<>();
+        Set<String> codes = new LinkedHashSet<>();
+        List<Role> roles = roleMapper.findRolesByUserId(userId);
+        for (Role role : roles) {
+            roleIds.add(role.getId());
+            if (role.getRoleCode() != null) {
+                codes.add(role.getRoleCode());
+            }
+        }
+        // 加载权限点
+        List<Permission> permissions = permissionMapper.findPermissionsByUserId(userId);
+        for (Permission permission : permissions) {
+            if (permission.getPermissionCode() != null) {
+                codes.add("perm:" + permission.getPermissionCode());
+            }
+        }
+        if (codes.isEmpty()) {
+            codes.add("ROLE_USER");
+        }
+        roleIds.sort(Long::compareTo);
+        List<GrantedAuthority> authorities = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            authorities.add(new SimpleGrantedAuthority(code));
+        }
+        return new AuthoritySnapshot(userId, version, roleIds, authorities, permissionInterner.toBits(codes));
+    }
+}
@@ -1,22 +1,20 @@
 package com.enterprise.integrated.security;
 
 import com.enterprise.integrated.service.AuthService;
-import com.enterprise.integrated.utils.JwtUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import io.jsonwebtoken.Claims;
 
 /**
  * JWT认证过滤器
@@ -27,16 +25,17 @@ import io.jsonwebtoken.Claims;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsServiceImpl userDetailsService;
     private final AuthService authService;
+    /** 无状态模式：由令牌声明 + 缓存的用户状态构建主体，认证路径不访问数据库 */
+    private final boolean statelessPrincipal;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, 
-                                 UserDetailsService userDetailsService,
-                                 AuthService authService) {
-        this.jwtUtils = jwtUtils;
+    public JwtAuthenticationFilter(UserDetailsServiceImpl userDetailsService,
+                                 AuthService authService,
+                                 @Value("${app.security.stateless-principal.enabled:false}") boolean statelessPrincipal) {
         this.userDetailsService = userDetailsService;
         this.authService = authService;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -47,29 +46,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = getTokenFromRequest(request);
         
         if (StringUtils.hasText(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // 验证令牌
-            Long userId = authService.validateToken(token);
-            if (userId != null) {
-                // 校验令牌类型：仅允许access令牌
-                try {
-                    Claims claims = (Claims) jwtUtils.getClass().getDeclaredMethod("getClaimsFromToken", String.class)
-                            .invoke(jwtUtils, token);
-                    Object type = claims.get("type");
-                    if (type == null || !"access".equals(String.valueOf(type))) {
-                        filterChain.doFilter(request, response);
-                        return;
-                    }
-                } catch (Exception ignored) {
-                    filterChain.doFilter(request, response);
-                    return;
-                }
-
-                String username = jwtUtils.getUsernameFromToken(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // 验证令牌（黑名单 + 验签 + access类型校验，仅解析一次）
+            VerifiedToken verified = authService.verifyAccessToken(token);
+            if (verified != null) {
+                UserDetails userDetails = statelessPrincipal
+                        ? userDetailsService.loadUserFromToken(verified)
+                        : userDetailsService.loadUserByUsername(verified.getUsername());
                 
                 if (userDetails != null) {
+                    // 已验签令牌作为凭证放入上下文，后续无需再次解析
                     UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(userDetails, verified, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
@@ -0,0 +1,114 @@
+package com.enterprise.integrated.security;
+
+import com.enterprise.integrated.common.exception.BusinessException;
+import com.enterprise.integrated.common.result.ResultCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * 密码哈希服务
+ * <p>
+ * 所有密码哈希与校验都提交到独立的有界线程池执行，CPU 并发度受线程数限制；
+ * 线程池与队列均已满时立即拒绝并返回“请求过于频繁”，哈希计算从不在请求线程上执行。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final long timeoutMs;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor executor,
+                                  @Value("${app.security.password-hash.timeout-ms:5000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * 哈希密码
+     *
+     * @param rawPassword 明文密码
+     * @return 密码哈希
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 校验密码
+     *
+     * @param rawPassword 明文密码
+     * @param encodedPassword 密码哈希
+     * @return 是否匹配
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 已存储的哈希强度是否低于当前校准强度
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 在后台以当前强度重新哈希（尽力而为，线程池繁忙时直接放弃）
+     *
+     * @param rawPassword 明文密码
+     * @param callback 新哈希的处理逻辑
+     */
+    public void upgradeAsync(CharSequence rawPassword, Consumer<String> callback) {
+        try {
+            executor.execute(() -> {
+                try {
+                    callback.accept(passwordEncoder.encode(rawPassword));
+                } catch (Exception e) {
+                    log.warn("密码哈希升级失败", e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.debug("密码哈希线程池繁忙，跳过本次哈希升级");
+        }
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (TaskRejectedException e) {
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, "系统繁忙，请稍后再试");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "系统繁忙，请稍后再试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "请求已中断", e);
+        } catch (ExecutionException e) {
+            throw new BusinessException(ResultCode.INTERNAL_ERROR, "密码处理失败", e.getCause());
+        }
+    }
+}
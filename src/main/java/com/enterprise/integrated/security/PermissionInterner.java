@@ -0,0 +1,138 @@
+package com.enterprise.integrated.security;
+
+import com.enterprise.integrated.mapper.PermissionMapper;
+import com.enterprise.integrated.mapper.RoleMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 权限编码编号器
+ * <p>
+ * 将权限字符串（{@code perm:xxx}、{@code ROLE_xxx}，与 {@link org.springframework.security.core.GrantedAuthority}
+ * 一致）映射为进程内稳定的连续整数编号，用作 {@link AuthorityBits} 的位下标。
+ * 启动完成后在后台线程中预先为库中全部权限编码与角色编码编号，使常用编号集中在低位
+ * （不阻塞启动，数据库不可用时不影响服务）；之后新增的编码在首次出现时按需编号。
+ * 编号只增不删，进程生命周期内不会变化。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class PermissionInterner {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionInterner.class);
+
+    private final PermissionMapper permissionMapper;
+    private final RoleMapper roleMapper;
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    public PermissionInterner(PermissionMapper permissionMapper, RoleMapper roleMapper) {
+        this.permissionMapper = permissionMapper;
+        this.roleMapper = roleMapper;
+    }
+
+    /**
+     * 启动完成后在后台预先编号（失败时退化为按需编号）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(this::preload, "permission-interner-preload");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void preload() {
+        try {
+            for (String code : roleMapper.listRoleCodes()) {
+                intern(code);
+            }
+            for (String code : permissionMapper.listPermissionCodes()) {
+                intern("perm:" + code);
+            }
+            log.info("权限编码预编号完成，共 {} 个", size());
+        } catch (Exception e) {
+            log.warn("权限编码预编号失败，改为按需编号", e);
+        }
+    }
+
+    /**
+     * 获取权限字符串的编号，不存在时分配新编号
+     *
+     * @param authority 权限字符串
+     * @return 编号
+     */
+    public int intern(String authority) {
+        Integer id = ids.get(authority);
+        return id != null ? id : ids.computeIfAbsent(authority, k -> nextId.getAndIncrement());
+    }
+
+    /**
+     * 获取权限字符串的编号（不分配）
+     *
+     * @param authority 权限字符串
+     * @return 编号，未编号时返回 -1
+     */
+    public int idOf(String authority) {
+        Integer id = ids.get(authority);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * 将一组权限字符串编号为位集合
+     *
+     * @param authorities 权限字符串
+     * @return 位集合
+     */
+    public AuthorityBits toBits(Collection<String> authorities) {
+        int[] bits = new int[authorities.size()];
+        int i = 0;
+        for (String authority : authorities) {
+            bits[i++] = intern(authority);
+        }
+        return AuthorityBits.of(bits);
+    }
+
+    /**
+     * 获取当前认证主体的权限位集合
+     * <p>
+     * 优先使用权限快照中预先计算的位集合；非快照主体（如测试或其他认证方式）逐项查编号，
+     * 未编号的权限不会出现在任何规则中，直接忽略。
+     *
+     * @param authentication 认证信息
+     * @return 位集合
+     */
+    public AuthorityBits grantedBits(Authentication authentication) {
+        if (authentication == null) {
+            return AuthorityBits.EMPTY;
+        }
+        if (authentication.getPrincipal() instanceof UserDetailsServiceImpl.CustomUserDetails userDetails
+                && userDetails.getAuthoritySnapshot() != null) {
+            return userDetails.getAuthoritySnapshot().getAuthorityBits();
+        }
+        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
+        int[] bits = new int[authorities.size()];
+        int i = 0;
+        for (GrantedAuthority authority : authorities) {
+            bits[i++] = authority.getAuthority() == null ? -1 : idOf(authority.getAuthority());
+        }
+        return AuthorityBits.of(bits);
+    }
+
+    /**
+     * 已编号的权限数量
+     */
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,124 @@
+package com.enterprise.integrated.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的 {@code @PreAuthorize} 规则
+ * <p>
+ * 将形如 {@code hasAuthority('perm:x') or hasRole('ADMIN') or isAuthenticated()} 的“或”表达式
+ * 在首次调用时编译为一个权限位掩码，此后鉴权只需一次位与运算。支持的子项：
+ * {@code hasAuthority}、{@code hasAnyAuthority}、{@code hasRole}、{@code hasAnyRole}、
+ * {@code isAuthenticated()}、{@code permitAll}、{@code denyAll}。
+ * <p>
+ * 其余子项（如 {@code authentication.principal.userId == #id}）无法预编译：
+ * 已编译部分通过即放行，否则交由 SpEL 计算完整表达式。
+ * 含 {@code and}/{@code not} 等运算符的表达式整体交由 SpEL 计算。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public final class PreAuthorizeRule {
+
+    /** 方法无 {@code @PreAuthorize} 注解：不参与决策 */
+    public static final PreAuthorizeRule NONE = new PreAuthorizeRule(null, AuthorityBits.EMPTY, false, false, false);
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private static final Pattern UNSUPPORTED_OPERATOR = Pattern.compile("(?i)\\band\\b|&&|\\bnot\\b|!|\\?");
+    private static final Pattern OR = Pattern.compile("(?i)\\s+or\\s+|\\s*\\|\\|\\s*");
+    private static final Pattern SINGLE = Pattern.compile("(hasAuthority|hasRole)\\(\\s*'([^']+)'\\s*\\)");
+    private static final Pattern MULTIPLE = Pattern.compile("(hasAnyAuthority|hasAnyRole)\\(\\s*('[^']+'(?:\\s*,\\s*'[^']+')*)\\s*\\)");
+    private static final Pattern QUOTED = Pattern.compile("'([^']+)'");
+
+    private final String expression;
+    private final AuthorityBits anyOf;
+    private final boolean permitAll;
+    private final boolean authenticated;
+    private final boolean fallback;
+
+    private PreAuthorizeRule(String expression, AuthorityBits anyOf, boolean permitAll, boolean authenticated,
+                             boolean fallback) {
+        this.expression = expression;
+        this.anyOf = anyOf;
+        this.permitAll = permitAll;
+        this.authenticated = authenticated;
+        this.fallback = fallback;
+    }
+
+    /**
+     * 编译表达式
+     *
+     * @param expression {@code @PreAuthorize} 表达式
+     * @param interner 权限编号器（表达式中的权限会被编号）
+     * @return 规则
+     */
+    public static PreAuthorizeRule compile(String expression, PermissionInterner interner) {
+        String trimmed = expression.trim();
+        if (UNSUPPORTED_OPERATOR.matcher(trimmed).find()) {
+            return new PreAuthorizeRule(expression, AuthorityBits.EMPTY, false, false, true);
+        }
+        List<String> authorities = new ArrayList<>();
+        boolean permitAll = false;
+        boolean authenticated = false;
+        boolean fallback = false;
+        for (String term : OR.split(trimmed)) {
+            Matcher single = SINGLE.matcher(term);
+            Matcher multiple = MULTIPLE.matcher(term);
+            if (single.matches()) {
+                authorities.add(normalize(single.group(1), single.group(2)));
+            } else if (multiple.matches()) {
+                Matcher quoted = QUOTED.matcher(multiple.group(2));
+                while (quoted.find()) {
+                    authorities.add(normalize(multiple.group(1), quoted.group(1)));
+                }
+            } else if ("isAuthenticated()".equals(term)) {
+                authenticated = true;
+            } else if ("permitAll".equals(term) || "permitAll()".equals(term)) {
+                permitAll = true;
+            } else if (!"denyAll".equals(term) && !"denyAll()".equals(term)) {
+                fallback = true;
+            }
+        }
+        int[] ids = new int[authorities.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = interner.intern(authorities.get(i));
+        }
+        return new PreAuthorizeRule(expression, AuthorityBits.of(ids), permitAll, authenticated, fallback);
+    }
+
+    /**
+     * 按已编译部分判断
+     *
+     * @param isAuthenticated 当前认证是否为已认证的非匿名用户
+     * @param granted 当前用户的权限位集合
+     * @return true 放行；false 拒绝；null 表示已编译部分未通过且需计算完整 SpEL 表达式
+     */
+    public Boolean evaluate(boolean isAuthenticated, AuthorityBits granted) {
+        if (permitAll || (authenticated && isAuthenticated) || granted.intersects(anyOf)) {
+            return Boolean.TRUE;
+        }
+        return fallback ? null : Boolean.FALSE;
+    }
+
+    /**
+     * 原始表达式；{@link #NONE} 时为 null
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * 是否包含无法预编译的子项
+     */
+    public boolean isFallback() {
+        return fallback;
+    }
+
+    private static String normalize(String function, String value) {
+        boolean role = "hasRole".equals(function) || "hasAnyRole".equals(function);
+        return role && !value.startsWith(ROLE_PREFIX) ? ROLE_PREFIX + value : value;
+    }
+}
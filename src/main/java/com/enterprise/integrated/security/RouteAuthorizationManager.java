@@ -0,0 +1,135 @@
+package com.enterprise.integrated.security;
+
+import com.enterprise.integrated.entity.Permission;
+import com.enterprise.integrated.mapper.PermissionMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.RequestPath;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 基于 sys_permission 的动态接口鉴权（可选）
+ * <p>
+ * 作为 {@code anyRequest()} 的授权规则：始终要求已认证；启用
+ * {@code app.security.url-authorization.enabled} 后，再按请求方法与解码后的路径（含 context-path，
+ * 与权限表中 {@code path} 的写法一致）在 {@link RouteIndex} 中查找所需权限，
+ * 用户拥有其中任一权限即放行，未配置规则的接口仍仅由 {@code @PreAuthorize} 控制。
+ * <p>
+ * 索引定期比对接口规则指纹（行数、最大 id 与规则列校验和），规则增删改（包括直接修改数据库）后自动重建并整体替换，
+ * 无需重新部署；各节点独立刷新，最大生效延迟为刷新间隔。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class RouteAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteAuthorizationManager.class);
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final PermissionMapper permissionMapper;
+    private final PermissionInterner permissionInterner;
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+    private final boolean enabled;
+    private final List<String> bypassAuthorities;
+    private final Object loadLock = new Object();
+    private volatile RouteIndex index;
+    private volatile String fingerprint;
+
+    public RouteAuthorizationManager(PermissionMapper permissionMapper,
+                                     PermissionInterner permissionInterner,
+                                     @Value("${app.security.url-authorization.enabled:false}") boolean enabled,
+                                     @Value("${app.security.url-authorization.bypass-authorities:ROLE_ADMIN}") List<String> bypassAuthorities) {
+        this.permissionMapper = permissionMapper;
+        this.permissionInterner = permissionInterner;
+        this.enabled = enabled;
+        this.bypassAuthorities = List.copyOf(bypassAuthorities);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated() || trustResolver.isAnonymous(auth)) {
+            return DENIED;
+        }
+        if (!enabled) {
+            return GRANTED;
+        }
+        RouteIndex current = currentIndex();
+        if (current == null) {
+            // 规则尚未加载成功时拒绝访问，不放松控制
+            return DENIED;
+        }
+        HttpServletRequest request = context.getRequest();
+        // 使用解码后的路径段匹配（与 DispatcherServlet 一致），避免以百分号编码绕过规则
+        RequestPath path = ServletRequestPathUtils.hasParsedRequestPath(request)
+                ? ServletRequestPathUtils.getParsedRequestPath(request)
+                : ServletRequestPathUtils.parseAndCache(request);
+        AuthorityBits required = current.requiredFor(request.getMethod(), path);
+        if (required == null) {
+            return GRANTED;
+        }
+        return permissionInterner.grantedBits(auth).intersects(required) ? GRANTED : DENIED;
+    }
+
+    /**
+     * 定期检查规则指纹，变化时重建索引
+     */
+    @Scheduled(initialDelayString = "${app.security.url-authorization.refresh-interval-ms:10000}",
+            fixedDelayString = "${app.security.url-authorization.refresh-interval-ms:10000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String latest = permissionMapper.findRouteRulesFingerprint();
+            if (index == null || !Objects.equals(latest, fingerprint)) {
+                synchronized (loadLock) {
+                    load(latest);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("刷新接口访问规则失败，继续使用当前规则: {}", e.getMessage());
+        }
+    }
+
+    private RouteIndex currentIndex() {
+        RouteIndex current = index;
+        if (current != null) {
+            return current;
+        }
+        synchronized (loadLock) {
+            if (index == null) {
+                try {
+                    load(permissionMapper.findRouteRulesFingerprint());
+                } catch (Exception e) {
+                    log.error("加载接口访问规则失败", e);
+                }
+            }
+            return index;
+        }
+    }
+
+    private void load(String latest) {
+        List<Permission> rules = permissionMapper.listRouteRules();
+        index = RouteIndex.build(rules, permissionInterner, bypassAuthorities);
+        fingerprint = latest;
+        log.info("接口访问规则已加载，共 {} 条", rules.size());
+    }
+}
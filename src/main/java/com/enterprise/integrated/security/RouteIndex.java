@@ -0,0 +1,320 @@
+package com.enterprise.integrated.security;
+
+import com.enterprise.integrated.entity.Permission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 接口访问规则的路由前缀树（不可变）
+ * <p>
+ * 将权限的 {@code path} 按 “/” 切分为路径段逐段建树，每个节点按请求方法保存所需权限的位掩码
+ * （同一节点上的多条规则为“任一”关系，{@code method} 为空的规则适用于所有方法）。支持的路径段：
+ * <ul>
+ *     <li>字面量，如 {@code users}；</li>
+ *     <li>{@code *} 与 {@code {id}}：匹配任意一个路径段；</li>
+ *     <li>含通配的路径段，如 {@code *.json}、{@code {id:\d+}}：编译为正则逐个尝试；</li>
+ *     <li>{@code **}：匹配剩余的零个或多个路径段。出现在中间时从该处截断（匹配范围只会更大，不会放松控制）。</li>
+ * </ul>
+ * 匹配一次遍历请求路径，优先级为 字面量 &gt; 正则段 &gt; 单段通配 &gt; {@code **}，
+ * 命中最具体且对该方法配置了规则的节点；字面量路径的匹配耗时只与路径段数有关，与规则总数无关。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public final class RouteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteIndex.class);
+
+    public static final RouteIndex EMPTY = new RouteIndex(new Node(), 0);
+
+    private final Node root;
+    private final int ruleCount;
+
+    private RouteIndex(Node root, int ruleCount) {
+        this.root = root;
+        this.ruleCount = ruleCount;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param rules 接口访问规则（使用 path、method、permissionCode）
+     * @param interner 权限编号器
+     * @param bypassAuthorities 可访问所有已配置接口的权限（如 ROLE_ADMIN），并入每个掩码
+     * @return 索引
+     */
+    public static RouteIndex build(List<Permission> rules, PermissionInterner interner,
+                                   Collection<String> bypassAuthorities) {
+        Node root = new Node();
+        int count = 0;
+        for (Permission rule : rules) {
+            if (rule.getPath() == null || rule.getPermissionCode() == null) {
+                continue;
+            }
+            Node node = root;
+            for (String segment : split(rule.getPath())) {
+                if ("**".equals(segment)) {
+                    if (node.rest == null) {
+                        node.rest = new Node();
+                    }
+                    node = node.rest;
+                    break;
+                }
+                node = node.child(segment);
+            }
+            String method = rule.getMethod() == null || rule.getMethod().isBlank()
+                    ? null : rule.getMethod().trim().toUpperCase(Locale.ROOT);
+            node.required.computeIfAbsent(method, k -> new LinkedHashSet<>())
+                    .add(interner.intern("perm:" + rule.getPermissionCode()));
+            count++;
+        }
+        int[] bypass = new int[bypassAuthorities.size()];
+        int i = 0;
+        for (String authority : bypassAuthorities) {
+            bypass[i++] = interner.intern(authority);
+        }
+        root.freeze(bypass);
+        return new RouteIndex(root, count);
+    }
+
+    /**
+     * 查找请求所需的权限掩码
+     *
+     * @param method 请求方法（大写）
+     * @param path 原始请求路径（未解码），按 {@link PathContainer#parsePath(String)} 解析
+     * @return 权限掩码（拥有其中任一权限即可访问）；未配置规则时返回 null
+     */
+    public AuthorityBits requiredFor(String method, String path) {
+        return requiredFor(method, PathContainer.parsePath(path));
+    }
+
+    /**
+     * 查找请求所需的权限掩码
+     * <p>
+     * 按路径段的 {@link PathContainer.PathSegment#valueToMatch()}（已百分号解码、去除 “;” 矩阵参数）匹配，
+     * 与 Spring MVC 分派时看到的路径一致，编码后的路径（如 {@code /api/%75sers}）与原路径命中同一规则；
+     * 空路径段（末尾或重复的 “/”）忽略。
+     *
+     * @param method 请求方法（大写）
+     * @param path 已解析的请求路径
+     * @return 权限掩码（拥有其中任一权限即可访问）；未配置规则时返回 null
+     */
+    public AuthorityBits requiredFor(String method, PathContainer path) {
+        if (ruleCount == 0) {
+            return null;
+        }
+        List<String> segments = new ArrayList<>();
+        for (PathContainer.Element element : path.elements()) {
+            if (element instanceof PathContainer.PathSegment segment && !segment.valueToMatch().isEmpty()) {
+                segments.add(segment.valueToMatch());
+            }
+        }
+        return match(root, segments, 0, method);
+    }
+
+    /**
+     * 规则数量
+     */
+    public int size() {
+        return ruleCount;
+    }
+
+    private static AuthorityBits match(Node node, List<String> segments, int index, String method) {
+        if (index == segments.size()) {
+            AuthorityBits required = node.requiredFor(method);
+            return required != null || node.rest == null ? required : node.rest.requiredFor(method);
+        }
+        String segment = segments.get(index);
+        AuthorityBits required;
+        Node literal = node.literals.get(segment);
+        if (literal != null && (required = match(literal, segments, index + 1, method)) != null) {
+            return required;
+        }
+        for (PatternChild child : node.patterns) {
+            if (child.pattern.matcher(segment).matches()
+                    && (required = match(child.node, segments, index + 1, method)) != null) {
+                return required;
+            }
+        }
+        if (node.single != null && (required = match(node.single, segments, index + 1, method)) != null) {
+            return required;
+        }
+        return node.rest == null ? null : node.rest.requiredFor(method);
+    }
+
+    private static List<String> split(String path) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int length = path.length();
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                segments.add(path.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private static boolean isSingleWildcard(String segment) {
+        return "*".equals(segment)
+                || (segment.startsWith("{") && segment.endsWith("}") && segment.indexOf(':') < 0
+                && segment.indexOf('{', 1) < 0);
+    }
+
+    private static boolean isPattern(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+    }
+
+    /**
+     * 将含通配的路径段编译为正则：{@code *} 任意字符、{@code ?} 单个字符、{@code {name}} 非空、{@code {name:regex}} 指定正则
+     */
+    private static Pattern compileSegment(String segment) {
+        StringBuilder regex = new StringBuilder();
+        int i = 0;
+        while (i < segment.length()) {
+            char c = segment.charAt(i);
+            if (c == '{') {
+                int close = segment.indexOf('}', i);
+                if (close < 0) {
+                    regex.append(Pattern.quote(segment.substring(i)));
+                    break;
+                }
+                String variable = segment.substring(i + 1, close);
+                int colon = variable.indexOf(':');
+                regex.append(colon < 0 ? "(.+)" : "(" + variable.substring(colon + 1) + ")");
+                i = close + 1;
+            } else if (c == '*') {
+                regex.append(".*");
+                i++;
+            } else if (c == '?') {
+                regex.append('.');
+                i++;
+            } else {
+                int next = i;
+                while (next < segment.length() && "{*?".indexOf(segment.charAt(next)) < 0) {
+                    next++;
+                }
+                regex.append(Pattern.quote(segment.substring(i, next)));
+                i = next;
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final List<PatternChild> patterns = new ArrayList<>();
+        private Node single;
+        private Node rest;
+        /** 构建期：方法（null 表示任意方法）-> 权限编号 */
+        private Map<String, Set<Integer>> required = new HashMap<>();
+        private Map<String, AuthorityBits> byMethod = Map.of();
+        private AuthorityBits anyMethod;
+
+        private Node child(String segment) {
+            if (isSingleWildcard(segment)) {
+                if (single == null) {
+                    single = new Node();
+                }
+                return single;
+            }
+            if (isPattern(segment)) {
+                for (PatternChild child : patterns) {
+                    if (child.source.equals(segment)) {
+                        return child.node;
+                    }
+                }
+                try {
+                    PatternChild child = new PatternChild(segment, compileSegment(segment), new Node());
+                    patterns.add(child);
+                    return child.node;
+                } catch (RuntimeException e) {
+                    log.warn("路径段 {} 无法编译，按单段通配处理", segment);
+                    return child("*");
+                }
+            }
+            return literals.computeIfAbsent(segment, k -> new Node());
+        }
+
+        private AuthorityBits requiredFor(String method) {
+            AuthorityBits bits = byMethod.get(method);
+            return bits != null ? bits : anyMethod;
+        }
+
+        /**
+         * 构建完成后将编号集合转换为位掩码，任意方法的规则并入各方法的掩码
+         */
+        private void freeze(int[] bypass) {
+            Set<Integer> any = required.get(null);
+            if (any != null) {
+                anyMethod = toBits(any, null, bypass);
+            }
+            if (required.size() > (any == null ? 0 : 1)) {
+                Map<String, AuthorityBits> masks = new HashMap<>();
+                for (Map.Entry<String, Set<Integer>> entry : required.entrySet()) {
+                    if (entry.getKey() != null) {
+                        masks.put(entry.getKey(), toBits(entry.getValue(), any, bypass));
+                    }
+                }
+                byMethod = masks;
+            }
+            required = null;
+            for (Node node : literals.values()) {
+                node.freeze(bypass);
+            }
+            for (PatternChild child : patterns) {
+                child.node.freeze(bypass);
+            }
+            if (single != null) {
+                single.freeze(bypass);
+            }
+            if (rest != null) {
+                rest.freeze(bypass);
+            }
+        }
+
+        private static AuthorityBits toBits(Set<Integer> ids, Set<Integer> any, int[] bypass) {
+            int[] all = new int[ids.size() + (any == null ? 0 : any.size()) + bypass.length];
+            int i = 0;
+            for (Integer id : ids) {
+                all[i++] = id;
+            }
+            if (any != null) {
+                for (Integer id : any) {
+                    all[i++] = id;
+                }
+            }
+            for (int id : bypass) {
+                all[i++] = id;
+            }
+            return AuthorityBits.of(all);
+        }
+    }
+
+    private static final class PatternChild {
+        private final String source;
+        private final Pattern pattern;
+        private final Node node;
+
+        private PatternChild(String source, Pattern pattern, Node node) {
+            this.source = source;
+            this.pattern = pattern;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.enterprise.integrated.security;
+
+import com.enterprise.integrated.utils.ConcurrentBloomFilter;
+import com.enterprise.integrated.utils.RedisMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌黑名单
+ * <p>
+ * Redis 仍是黑名单的权威存储；本地维护一个已吊销令牌ID（jti）的布隆过滤器作为前置判断，
+ * 只有“可能已吊销”时才访问 Redis，正常请求无需额外的网络往返。
+ * 吊销通过 Redis 发布/订阅广播到所有节点；启动时及定期从 Redis 全量重建过滤器，
+ * 以清理已过期的ID并弥补可能丢失的广播消息。过滤器加载完成前所有判断都回源 Redis。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class TokenBlacklist implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenBlacklist.class);
+
+    public static final String KEY_PREFIX = "blacklist:token:";
+    public static final String REVOKED_CHANNEL = "token:revoked";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile ConcurrentBloomFilter filter;
+    /** 重建期间收到的吊销同时写入新过滤器，避免切换时丢失 */
+    private volatile ConcurrentBloomFilter rebuilding;
+    /** 过滤器是否已从 Redis 完整加载 */
+    private volatile boolean ready;
+
+    public TokenBlacklist(RedisTemplate<String, Object> redisTemplate,
+                          StringRedisTemplate stringRedisTemplate,
+                          RedisMessageSubscriber messageSubscriber,
+                          @Value("${jwt.blacklist.bloom-expected-insertions:100000}") long expectedInsertions,
+                          @Value("${jwt.blacklist.bloom-false-positive-rate:0.001}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new ConcurrentBloomFilter(expectedInsertions, falsePositiveRate);
+        messageSubscriber.subscribe(this, new ChannelTopic(REVOKED_CHANNEL));
+    }
+
+    /**
+     * 判断令牌是否已吊销
+     *
+     * @param verified 已验签令牌
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(VerifiedToken verified) {
+        String tokenId = verified.getTokenId();
+        if (ready && !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenId));
+    }
+
+    /**
+     * 吊销令牌：写入 Redis（存活至令牌过期）并广播给所有节点
+     *
+     * @param verified 已验签令牌
+     */
+    public void revoke(VerifiedToken verified) {
+        long remainingSeconds = verified.getRemainingSeconds();
+        if (remainingSeconds <= 0) {
+            return;
+        }
+        String tokenId = verified.getTokenId();
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenId, "blacklisted", remainingSeconds, TimeUnit.SECONDS);
+        addLocal(tokenId);
+        stringRedisTemplate.convertAndSend(REVOKED_CHANNEL, tokenId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 从 Redis 全量重建本地过滤器（启动时及定期执行）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${jwt.blacklist.rebuild-interval-ms:600000}",
+            fixedDelayString = "${jwt.blacklist.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        ConcurrentBloomFilter fresh = new ConcurrentBloomFilter(expectedInsertions, falsePositiveRate);
+        rebuilding = fresh;
+        long count = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                fresh.put(cursor.next().substring(KEY_PREFIX.length()));
+                count++;
+            }
+            filter = fresh;
+            ready = true;
+            log.info("令牌黑名单过滤器已重建, 条目数: {}", count);
+        } catch (Exception e) {
+            log.warn("令牌黑名单过滤器重建失败，{}", ready ? "继续使用现有过滤器" : "黑名单判断将回源Redis", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private void addLocal(String tokenId) {
+        filter.put(tokenId);
+        ConcurrentBloomFilter pending = rebuilding;
+        if (pending != null) {
+            pending.put(tokenId);
+        }
+    }
+}
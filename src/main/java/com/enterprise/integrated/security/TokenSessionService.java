@@ -0,0 +1,158 @@
+package com.enterprise.integrated.security;
+
+import com.enterprise.integrated.utils.RedisMessageSubscriber;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌会话服务
+ * <p>
+ * 每个用户维护两份 Redis 数据：
+ * <ul>
+ *     <li>{@code session:{userId}}：哈希，设备标识 -> 当前有效刷新令牌的 jti，多设备登录互不影响；</li>
+ *     <li>{@code token:epoch:{userId}}：令牌代数，签发的令牌均携带当时的代数，
+ *     递增一次即可吊销该用户所有已签发令牌，无需逐个写入黑名单。</li>
+ * </ul>
+ * 各节点本地缓存用户的当前代数，递增时通过 Redis 发布/订阅广播失效，缓存过期时间作为兜底。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class TokenSessionService implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenSessionService.class);
+
+    public static final String SESSION_PREFIX = "session:";
+    public static final String EPOCH_PREFIX = "token:epoch:";
+    public static final String EPOCH_CHANNEL = "token:epoch";
+    public static final String DEFAULT_DEVICE = "default";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<Long, Long> epochs;
+
+    public TokenSessionService(StringRedisTemplate stringRedisTemplate,
+                               RedisMessageSubscriber messageSubscriber,
+                               @Value("${jwt.session.epoch-cache-size:100000}") long maxSize,
+                               @Value("${jwt.session.epoch-cache-ttl-seconds:300}") long ttlSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.epochs = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        messageSubscriber.subscribe(this, new ChannelTopic(EPOCH_CHANNEL));
+    }
+
+    /**
+     * 获取用户当前令牌代数（优先本地缓存）
+     *
+     * @param userId 用户ID
+     * @return 当前代数，从未吊销过时为 0
+     */
+    public long currentEpoch(Long userId) {
+        return epochs.get(userId, this::loadEpoch);
+    }
+
+    /**
+     * 判断令牌是否已被整体吊销
+     *
+     * @param verified 已验签令牌
+     * @return 令牌代数落后于用户当前代数时返回 true
+     */
+    public boolean isRevoked(VerifiedToken verified) {
+        return verified.getEpoch() < currentEpoch(verified.getUserId());
+    }
+
+    /**
+     * 吊销用户所有已签发令牌：递增代数（一次写入）并清空会话
+     *
+     * @param userId 用户ID
+     * @return 新的令牌代数
+     */
+    public long revokeAll(Long userId) {
+        Long next = stringRedisTemplate.opsForValue().increment(EPOCH_PREFIX + userId);
+        long epoch = next == null ? currentEpoch(userId) + 1 : next;
+        stringRedisTemplate.delete(SESSION_PREFIX + userId);
+        epochs.put(userId, epoch);
+        try {
+            stringRedisTemplate.convertAndSend(EPOCH_CHANNEL, userId + ":" + epoch);
+        } catch (Exception e) {
+            log.warn("广播令牌代数变更失败, userId: {}", userId, e);
+        }
+        return epoch;
+    }
+
+    /**
+     * 登记设备会话（覆盖该设备之前的刷新令牌）
+     *
+     * @param userId 用户ID
+     * @param deviceId 设备标识
+     * @param refreshToken 刷新令牌
+     */
+    public void register(Long userId, String deviceId, VerifiedToken refreshToken) {
+        String key = SESSION_PREFIX + userId;
+        stringRedisTemplate.opsForHash().put(key, normalize(deviceId), refreshToken.getTokenId());
+        // 会话整体存活至最近一次签发的刷新令牌过期
+        stringRedisTemplate.expire(key, refreshToken.getRemainingSeconds(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 判断刷新令牌是否为该设备当前有效的刷新令牌
+     *
+     * @param refreshToken 已验签的刷新令牌
+     * @return 是否有效
+     */
+    public boolean isCurrent(VerifiedToken refreshToken) {
+        Object tokenId = stringRedisTemplate.opsForHash()
+                .get(SESSION_PREFIX + refreshToken.getUserId(), normalize(refreshToken.getDeviceId()));
+        return refreshToken.getTokenId().equals(tokenId);
+    }
+
+    /**
+     * 移除设备会话
+     *
+     * @param userId 用户ID
+     * @param deviceId 设备标识
+     */
+    public void remove(Long userId, String deviceId) {
+        stringRedisTemplate.opsForHash().delete(SESSION_PREFIX + userId, normalize(deviceId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        try {
+            Long userId = Long.valueOf(separator < 0 ? body : body.substring(0, separator));
+            if (separator < 0) {
+                epochs.invalidate(userId);
+            } else {
+                long epoch = Long.parseLong(body.substring(separator + 1));
+                epochs.asMap().merge(userId, epoch, Math::max);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("忽略无法解析的令牌代数消息: {}", body);
+        }
+    }
+
+    private Long loadEpoch(Long userId) {
+        String value = stringRedisTemplate.opsForValue().get(EPOCH_PREFIX + userId);
+        return value == null ? 0L : Long.parseLong(value);
+    }
+
+    private static String normalize(String deviceId) {
+        return deviceId == null || deviceId.isBlank() ? DEFAULT_DEVICE : deviceId;
+    }
+}
@@ -1,21 +1,14 @@
 package com.enterprise.integrated.security;
 
 import com.enterprise.integrated.entity.User;
-import com.enterprise.integrated.entity.Role;
 import com.enterprise.integrated.service.UserService;
-import com.enterprise.integrated.mapper.RoleMapper;
-import com.enterprise.integrated.mapper.PermissionMapper;
-import com.enterprise.integrated.entity.Permission;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 /**
  * 用户详情服务实现
@@ -27,13 +20,15 @@ import java.util.List;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserService userService;
-    private final RoleMapper roleMapper;
-    private final PermissionMapper permissionMapper;
+    private final AuthoritySnapshotService authoritySnapshotService;
+    private final UserStatusCache userStatusCache;
 
-    public UserDetailsServiceImpl(UserService userService, RoleMapper roleMapper, PermissionMapper permissionMapper) {
+    public UserDetailsServiceImpl(UserService userService,
+                                  AuthoritySnapshotService authoritySnapshotService,
+                                  UserStatusCache userStatusCache) {
         this.userService = userService;
-        this.roleMapper = roleMapper;
-        this.permissionMapper = permissionMapper;
+        this.authoritySnapshotService = authoritySnapshotService;
+        this.userStatusCache = userStatusCache;
     }
 
     @Override
@@ -43,7 +38,28 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new UsernameNotFoundException("用户不存在: " + username);
         }
 
-        return new CustomUserDetails(user, roleMapper, permissionMapper);
+        return new CustomUserDetails(user, authoritySnapshotService.getSnapshot(user.getId()));
+    }
+
+    /**
+     * 基于已验签令牌的声明构建用户详情（无状态模式）
+     * <p>
+     * 不读取完整的用户记录，仅依赖缓存的用户状态与权限快照；
+     * 用户不存在、已删除或已禁用时返回 null。
+     *
+     * @param verified 已验签的访问令牌
+     * @return 用户详情，用户不可用时返回 null
+     */
+    public CustomUserDetails loadUserFromToken(VerifiedToken verified) {
+        UserStatusCache.UserStatus status = userStatusCache.get(verified.getUserId());
+        if (status == null || !status.isEnabled()) {
+            return null;
+        }
+        User user = new User();
+        user.setId(status.getUserId());
+        user.setUsername(status.getUsername());
+        user.setStatus(status.getStatus());
+        return new CustomUserDetails(user, authoritySnapshotService.getSnapshot(status.getUserId()), true);
     }
 
     /**
@@ -51,35 +67,23 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     public static class CustomUserDetails implements UserDetails {
         private final User user;
-        private final RoleMapper roleMapper;
-        private final PermissionMapper permissionMapper;
+        private final AuthoritySnapshot authoritySnapshot;
+        private final boolean claimsBacked;
 
-        public CustomUserDetails(User user, RoleMapper roleMapper, PermissionMapper permissionMapper) {
+        public CustomUserDetails(User user, AuthoritySnapshot authoritySnapshot) {
+            this(user, authoritySnapshot, false);
+        }
+
+        public CustomUserDetails(User user, AuthoritySnapshot authoritySnapshot, boolean claimsBacked) {
             this.user = user;
-            this.roleMapper = roleMapper;
-            this.permissionMapper = permissionMapper;
+            this.authoritySnapshot = authoritySnapshot;
+            this.claimsBacked = claimsBacked;
         }
 
         @Override
         public Collection<? extends GrantedAuthority> getAuthorities() {
-            List<GrantedAuthority> authorities = new ArrayList<>();
-            List<Role> roles = roleMapper.findRolesByUserId(user.getId());
-            for (Role role : roles) {
-                if (role.getRoleCode() != null) {
-                    authorities.add(new SimpleGrantedAuthority(role.getRoleCode()));
-                }
-            }
-            // 加载权限点
-            List<Permission> permissions = permissionMapper.findPermissionsByUserId(user.getId());
-            for (Permission permission : permissions) {
-                if (permission.getPermissionCode() != null) {
-                    authorities.add(new SimpleGrantedAuthority("perm:" + permission.getPermissionCode()));
-                }
-            }
-            if (authorities.isEmpty()) {
-                authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
-            }
-            return authorities;
+            // 快照不可变且已缓存，重复调用不产生数据库访问
+            return authoritySnapshot.getAuthorities();
         }
 
         @Override
@@ -119,5 +123,16 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         public Long getUserId() {
             return user.getId();
         }
+
+        public AuthoritySnapshot getAuthoritySnapshot() {
+            return authoritySnapshot;
+        }
+
+        /**
+         * 是否由令牌声明构建（此时 {@link #getUser()} 仅包含 id、username、status）
+         */
+        public boolean isClaimsBacked() {
+            return claimsBacked;
+        }
     }
 }
@@ -0,0 +1,135 @@
+package com.enterprise.integrated.security;
+
+import com.enterprise.integrated.entity.User;
+import com.enterprise.integrated.mapper.UserMapper;
+import com.enterprise.integrated.utils.RedisMessageSubscriber;
+import com.enterprise.integrated.utils.TransactionUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * 用户状态缓存
+ * <p>
+ * 无状态认证模式下仅缓存用户的最小状态（是否存在、是否启用），条目写入后最多存活
+ * {@code app.security.stateless-principal.status-ttl-seconds} 秒，即禁用/删除用户的最大生效延迟。
+ * 本节点修改用户状态时在事务提交后立即失效并广播，其他节点通常无需等待过期。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class UserStatusCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatusCache.class);
+
+    public static final String CHANGED_CHANNEL = "auth:user:status";
+
+    /** 用户不存在或已删除时缓存的占位状态，避免穿透到数据库 */
+    private static final UserStatus ABSENT = new UserStatus(null, null, 0);
+
+    private final UserMapper userMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<Long, UserStatus> statuses;
+
+    public UserStatusCache(UserMapper userMapper,
+                           StringRedisTemplate stringRedisTemplate,
+                           RedisMessageSubscriber messageSubscriber,
+                           @Value("${app.security.stateless-principal.status-cache-size:100000}") long maxSize,
+                           @Value("${app.security.stateless-principal.status-ttl-seconds:30}") long ttlSeconds) {
+        this.userMapper = userMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        messageSubscriber.subscribe(this, new ChannelTopic(CHANGED_CHANNEL));
+    }
+
+    /**
+     * 获取用户状态
+     *
+     * @param userId 用户ID
+     * @return 用户状态；用户不存在或已删除时返回 null
+     */
+    public UserStatus get(Long userId) {
+        UserStatus status = statuses.get(userId, this::load);
+        return status == ABSENT ? null : status;
+    }
+
+    /**
+     * 用户状态变化（启用/禁用/删除/改名）后调用（事务提交后生效）
+     */
+    public void onUserChanged(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            statuses.invalidate(userId);
+            try {
+                stringRedisTemplate.convertAndSend(CHANGED_CHANNEL, String.valueOf(userId));
+            } catch (Exception e) {
+                log.warn("广播用户状态变更失败: {}", userId, e);
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            statuses.invalidate(Long.valueOf(body));
+        } catch (NumberFormatException e) {
+            log.warn("忽略无法解析的用户状态消息: {}", body);
+        }
+    }
+
+    private UserStatus load(Long userId) {
+        User user = userMapper.findStatusById(userId);
+        if (user == null || user.getDeleted() == null || user.getDeleted() != 0) {
+            return ABSENT;
+        }
+        return new UserStatus(user.getId(), user.getUsername(), user.getStatus() == null ? 0 : user.getStatus());
+    }
+
+    /**
+     * 用户最小状态（不可变）
+     */
+    public static final class UserStatus {
+        private final Long userId;
+        private final String username;
+        private final int status;
+
+        private UserStatus(Long userId, String username, int status) {
+            this.userId = userId;
+            this.username = username;
+            this.status = status;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public boolean isEnabled() {
+            return status == 1;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.enterprise.integrated.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * 已验签的令牌声明
+ * <p>
+ * 每个请求只解析/验签一次，之后在过滤器、AuthService 与 SecurityContext 之间传递该不可变对象，
+ * 避免重复解析同一个 JWT。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public final class VerifiedToken {
+
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    public static final String CLAIM_EPOCH = "epoch";
+    public static final String CLAIM_DEVICE = "dev";
+
+    private final String token;
+    private final String tokenId;
+    private final Long userId;
+    private final String username;
+    private final String type;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final long epoch;
+    private final String deviceId;
+
+    private VerifiedToken(String token, String tokenId, Long userId, String username, String type,
+                          Date issuedAt, Date expiration, long epoch, String deviceId) {
+        this.token = token;
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.username = username;
+        this.type = type;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+        this.epoch = epoch;
+        this.deviceId = deviceId;
+    }
+
+    /**
+     * 由已验签的声明构建
+     *
+     * @param token 原始令牌
+     * @param claims 已验签的声明
+     * @return 已验签令牌
+     */
+    public static VerifiedToken of(String token, Claims claims) {
+        Object userId = claims.get("userId");
+        Object type = claims.get("type");
+        Object epoch = claims.get(CLAIM_EPOCH);
+        Object deviceId = claims.get(CLAIM_DEVICE);
+        // 早期签发的令牌没有 jti，以原始令牌作为标识（与旧黑名单键保持一致）
+        String tokenId = claims.getId() != null ? claims.getId() : token;
+        return new VerifiedToken(
+                token,
+                tokenId,
+                userId == null ? null : Long.valueOf(userId.toString()),
+                claims.getSubject(),
+                type == null ? null : String.valueOf(type),
+                claims.getIssuedAt(),
+                claims.getExpiration(),
+                // 早期签发的令牌没有 epoch，视为第 0 代
+                epoch instanceof Number ? ((Number) epoch).longValue() : 0L,
+                deviceId == null ? null : String.valueOf(deviceId));
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * 令牌唯一标识（jti），用于黑名单
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * 签发时用户的令牌代数，小于当前代数即已被整体吊销
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * 签发设备标识，可能为 null（早期令牌）
+     */
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public boolean isAccessToken() {
+        return TYPE_ACCESS.equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return TYPE_REFRESH.equals(type);
+    }
+
+    /**
+     * 计算令牌剩余有效期（秒）
+     */
+    public long getRemainingSeconds() {
+        if (expiration == null) {
+            return 0;
+        }
+        long remainMs = expiration.getTime() - System.currentTimeMillis();
+        return Math.max(0, remainMs / 1000);
+    }
+
+    @Override
+    public String toString() {
+        // 不输出原始令牌，避免日志泄露
+        return "VerifiedToken{userId=" + userId + ", username='" + username + "', type='" + type
+                + "', epoch=" + epoch + ", deviceId='" + deviceId + "'}";
+    }
+}
@@ -0,0 +1,128 @@
+package com.enterprise.integrated.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验签令牌的本地缓存
+ * <p>
+ * 以令牌的 SHA-256 摘要为键缓存验签结果，同一令牌重复访问时只需一次哈希查找，无需再做 HMAC 验签。
+ * 容量同时受条目数与内存上限约束：每个条目的权重取“估算字节数”与“内存上限 / 条目上限”的较大值，
+ * 因此总权重不超过内存上限时，条目数也不会超过条目上限。
+ * 条目的过期时间不会晚于令牌自身的 exp；黑名单校验仍由 AuthService 在命中缓存后执行。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class VerifiedTokenCache {
+
+    /**
+     * 条目固定开销估算（键、VerifiedToken 对象与 Caffeine 节点）
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    });
+
+    private final boolean enabled;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.verified-cache.max-entries:100000}") long maxEntries,
+                              @Value("${jwt.verified-cache.max-bytes:67108864}") long maxBytes,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        int minWeight = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (maxBytes + maxEntries - 1) / maxEntries));
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, VerifiedToken>weigher((key, value) ->
+                        Math.max(minWeight, ENTRY_OVERHEAD_BYTES + key.length() + value.getToken().length() * 2))
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified.tokens");
+    }
+
+    /**
+     * 查找已验签令牌
+     *
+     * @param token 原始令牌
+     * @return 缓存的验签结果，未命中或已过期返回null
+     */
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        VerifiedToken cached = cache.getIfPresent(digest(token));
+        // 摘要命中后再比对原文，杜绝任何摘要冲突
+        if (cached == null || !token.equals(cached.getToken()) || cached.getRemainingSeconds() <= 0) {
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * 缓存验签结果（没有 exp 的令牌不缓存）
+     */
+    public void put(VerifiedToken verified) {
+        if (!enabled || verified == null || verified.getExpiration() == null) {
+            return;
+        }
+        cache.put(digest(verified.getToken()), verified);
+    }
+
+    /**
+     * 移除指定令牌（登出等场景）
+     */
+    public void invalidate(String token) {
+        if (token != null) {
+            cache.invalidate(digest(token));
+        }
+    }
+
+    private static String digest(String token) {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    /**
+     * 条目存活时间 = 令牌剩余有效期
+     */
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainMs = value.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
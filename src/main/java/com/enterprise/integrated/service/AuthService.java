@@ -3,6 +3,7 @@ package com.enterprise.integrated.service;
 import com.enterprise.integrated.dto.LoginRequest;
 import com.enterprise.integrated.dto.LoginResponse;
 import com.enterprise.integrated.dto.UserDTO;
+import com.enterprise.integrated.security.VerifiedToken;
 
 /**
  * 认证服务接口
@@ -35,6 +36,11 @@ public interface AuthService {
      */
     LoginResponse refreshToken(String refreshToken);
 
+    /**
+     * 吊销当前用户在所有设备上的令牌
+     */
+    void logoutAll();
+
     /**
      * 获取当前用户信息
      * 
@@ -50,6 +56,14 @@ public interface AuthService {
      */
     Long validateToken(String token);
 
+    /**
+     * 校验访问令牌（黑名单 + 验签 + 类型），整个请求仅解析一次
+     *
+     * @param token 访问令牌
+     * @return 已验签令牌，无效时返回null
+     */
+    VerifiedToken verifyAccessToken(String token);
+
     /**
      * 生成访问令牌
      * 
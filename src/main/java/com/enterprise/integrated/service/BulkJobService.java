@@ -0,0 +1,35 @@
+package com.enterprise.integrated.service;
+
+import com.enterprise.integrated.dto.BulkJobDTO;
+import com.enterprise.integrated.entity.BulkJob;
+
+import java.util.List;
+
+/**
+ * 批量任务服务接口
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public interface BulkJobService {
+
+    /**
+     * 提交批量任务（持久化后异步分批执行）
+     *
+     * @param jobType 任务类型
+     * @param targetId 目标ID（角色ID）
+     * @param ids 待处理ID
+     * @return 任务进度
+     */
+    BulkJobDTO submit(BulkJob.JobType jobType, Long targetId, List<Long> ids);
+
+    /**
+     * 查询任务进度与已提交批次的累计结果
+     */
+    BulkJobDTO getJob(Long id);
+
+    /**
+     * 恢复中断的任务（本节点未在执行的、或执行节点心跳已过期的任务）
+     */
+    void resumeInterruptedJobs();
+}
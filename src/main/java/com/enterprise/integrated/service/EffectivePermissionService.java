@@ -0,0 +1,42 @@
+package com.enterprise.integrated.service;
+
+import java.util.Collection;
+
+/**
+ * 用户有效权限服务接口
+ * <p>
+ * 维护由用户角色、角色权限关联派生的 sys_user_permission，使按用户查询权限成为单键索引读取。
+ * 增量方法须在关联变更的同一事务内调用：新增在关联写入之后，移除在关联删除之前。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public interface EffectivePermissionService {
+
+    /**
+     * 角色新增用户之后调用
+     */
+    void onRoleUsersAdded(Long roleId, Collection<Long> userIds);
+
+    /**
+     * 角色移除用户之前调用
+     */
+    void onRoleUsersRemoving(Long roleId, Collection<Long> userIds);
+
+    /**
+     * 角色新增权限之后调用
+     */
+    void onRolePermissionsAdded(Long roleId, Collection<Long> permissionIds);
+
+    /**
+     * 角色移除权限之前调用
+     */
+    void onRolePermissionsRemoving(Long roleId, Collection<Long> permissionIds);
+
+    /**
+     * 对账：按关联表重新计算全部用户的有效权限（按用户区间分批，每批独立事务）
+     *
+     * @return 修正的记录数
+     */
+    int reconcile();
+}
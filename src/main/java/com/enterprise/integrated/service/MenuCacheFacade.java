@@ -1,46 +1,33 @@
 package com.enterprise.integrated.service;
 
-import com.enterprise.integrated.mapper.RoleMapper;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Component
 public class MenuCacheFacade {
 
-    private final MenuCacheService menuCacheService;
-    private final RoleMapper roleMapper;
-
-    public MenuCacheFacade(MenuCacheService menuCacheService, RoleMapper roleMapper) {
-        this.menuCacheService = menuCacheService;
-        this.roleMapper = roleMapper;
-    }
+    private final MenuSnapshotService menuSnapshotService;
 
-    /**
-     * 在用户-角色关系发生变化后调用
-     */
-    public void onUserRolesChanged(Long userId) {
-        if (userId == null) return;
-        menuCacheService.evictVisibleMenuTreeForUser(userId);
+    public MenuCacheFacade(MenuSnapshotService menuSnapshotService) {
+        this.menuSnapshotService = menuSnapshotService;
     }
 
     /**
      * 在角色-权限关系发生变化后调用
+     * <p>
+     * 可见菜单树按角色集合签名共享，只需失效包含该角色的签名，与拥有该角色的用户数无关；
+     * 失效在事务提交后合并、异步执行，连续多次调整同一角色只处理一次。
      */
     public void onRolePermissionsChanged(Long roleId) {
         if (roleId == null) return;
-        List<Long> userIds = roleMapper.findUserIdsByRoleId(roleId);
-        if (userIds != null && !userIds.isEmpty()) {
-            menuCacheService.evictVisibleMenuTreeForUsers(userIds);
-        }
+        menuSnapshotService.onRoleMenusChanged(roleId);
     }
 
     /**
      * 在菜单-权限发生结构性变化后调用（例如批量绑定解绑影响范围未知）
      */
     public void onMenusPermissionsMassChanged() {
-        menuCacheService.evictAll("menuTree");
-        menuCacheService.evictAll("visibleMenuTree");
+        // 事务提交后合并执行：重载快照并清空全部菜单缓存
+        menuSnapshotService.onMenusChanged();
     }
 }
 
@@ -1,17 +1,42 @@
 package com.enterprise.integrated.service;
 
+import com.enterprise.integrated.dto.MenuNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class MenuCacheService {
 
+    private static final Logger log = LoggerFactory.getLogger(MenuCacheService.class);
+
+    /** 角色 -> 包含该角色的角色集合签名（用于按角色失效共享的可见菜单树） */
+    public static final String ROLE_SIGNATURE_PREFIX = "menu:role-sig:";
+
+    /** 索引存活时间（每次登记时续期），需长于 visibleMenuTree 缓存的过期时间；失效时不删除索引，由过期清理 */
+    private static final long ROLE_SIGNATURE_TTL_HOURS = 2;
+
+    /** 批量失效时超过该签名数则整体清空可见菜单树 */
+    private static final int MAX_TARGETED_SIGNATURES = 256;
+
     private final CacheManager cacheManager;
+    private final StringRedisTemplate stringRedisTemplate;
 
-    public MenuCacheService(CacheManager cacheManager) {
+    public MenuCacheService(CacheManager cacheManager, StringRedisTemplate stringRedisTemplate) {
         this.cacheManager = cacheManager;
+        this.stringRedisTemplate = stringRedisTemplate;
     }
 
     public void evictAllMenuCaches() {
@@ -19,6 +44,21 @@ public class MenuCacheService {
         evictAll("visibleMenuTree");
     }
 
+    /**
+     * 以最新完整菜单树覆盖缓存（键与 getMenuTree 的 @Cacheable 一致）
+     */
+    public void putMenuTree(List<MenuNode> tree) {
+        Cache cache = cacheManager.getCache("menuTree");
+        if (cache == null) {
+            return;
+        }
+        if (tree == null || tree.isEmpty()) {
+            cache.evictIfPresent("all");
+        } else {
+            cache.put("all", tree);
+        }
+    }
+
     public void evictMenuTree() {
         evictAll("menuTree");
     }
@@ -27,28 +67,93 @@ public class MenuCacheService {
         evictAll("visibleMenuTree");
     }
 
-    public void evictVisibleMenuTreeForUser(Long userId) {
+    /**
+     * 登记角色集合签名（在可见菜单树缓存未命中、即将写入缓存时调用）
+     */
+    public void registerRoleSignature(List<Long> roleIds, String signature) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return;
+        }
+        try {
+            for (Long roleId : roleIds) {
+                String key = ROLE_SIGNATURE_PREFIX + roleId;
+                stringRedisTemplate.opsForSet().add(key, signature);
+                stringRedisTemplate.expire(key, ROLE_SIGNATURE_TTL_HOURS, TimeUnit.HOURS);
+            }
+        } catch (Exception e) {
+            log.warn("登记角色签名失败: {}", signature, e);
+        }
+    }
+
+    /**
+     * 失效包含该角色的所有共享可见菜单树（条目数 = 签名数 × 4，与用户数无关）
+     */
+    public void evictVisibleMenuTreeForRole(Long roleId) {
+        if (roleId != null) {
+            evictVisibleMenuTreeForRoles(List.of(roleId));
+        }
+    }
+
+    /**
+     * 批量失效包含任一角色的共享可见菜单树
+     * <p>
+     * 所有角色的签名索引在一次管道往返中读取；涉及的签名过多时直接清空整个缓存，比逐条失效更便宜。
+     */
+    public void evictVisibleMenuTreeForRoles(Collection<Long> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(roleIds.size());
+        for (Long roleId : roleIds) {
+            if (roleId != null) {
+                keys.add(ROLE_SIGNATURE_PREFIX + roleId);
+            }
+        }
+        Set<String> signatures = new HashSet<>();
+        try {
+            List<Object> members = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keys) {
+                    connection.setCommands().sMembers(key.getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+            for (Object member : members) {
+                if (member instanceof Collection<?> values) {
+                    values.forEach(value -> signatures.add(String.valueOf(value)));
+                }
+            }
+        } catch (Exception e) {
+            // 无法确定影响范围时退化为整体清空
+            log.warn("读取角色签名失败，清空全部可见菜单树: roleIds={}", roleIds, e);
+            evictVisibleMenuTreeAllUsers();
+            return;
+        }
+        if (signatures.size() > MAX_TARGETED_SIGNATURES) {
+            evictVisibleMenuTreeAllUsers();
+        } else {
+            for (String signature : signatures) {
+                evictVisibleMenuTreeForSignature(signature);
+            }
+        }
+        // 不删除签名索引：失效前已登记签名的请求可能在此之后回填旧树，保留索引使后续变更仍能定位到该条目，
+        // 索引随 TTL 自然过期
+    }
+
+    public void evictVisibleMenuTreeForSignature(String signature) {
         Cache cache = cacheManager.getCache("visibleMenuTree");
-        if (cache == null || userId == null) {
+        if (cache == null || signature == null) {
             return;
         }
         // 组合参数：menuOnly/pruneEmpty 两个布尔
         boolean[] bools = new boolean[] {false, true};
         for (boolean menuOnly : bools) {
             for (boolean pruneEmpty : bools) {
-                String key = userId + ":" + menuOnly + ":" + pruneEmpty;
+                String key = signature + ":" + menuOnly + ":" + pruneEmpty;
                 cache.evictIfPresent(key);
             }
         }
     }
 
-    public void evictVisibleMenuTreeForUsers(List<Long> userIds) {
-        if (userIds == null || userIds.isEmpty()) return;
-        for (Long userId : userIds) {
-            evictVisibleMenuTreeForUser(userId);
-        }
-    }
-
     public void evictAll(String cacheName) {
         Cache cache = cacheManager.getCache(cacheName);
         if (cache != null) {
@@ -56,5 +161,3 @@ public class MenuCacheService {
         }
     }
 }
-
-
@@ -0,0 +1,273 @@
+package com.enterprise.integrated.service;
+
+import com.enterprise.integrated.dto.MenuNode;
+import com.enterprise.integrated.dto.RolePermissionBinding;
+import com.enterprise.integrated.entity.Permission;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 菜单森林的不可变快照
+ * <p>
+ * 菜单按 (sort_order, id) 排序后分配连续的整数下标，父子关系以数组存储：
+ * {@code parent[i]} 为父节点下标（根为 -1），子节点采用 CSR 形式
+ * （{@code children[childStart[i] .. childStart[i+1])}），子节点天然按排序顺序排列。
+ * 角色可见菜单预先计算为位图，可见树 = 角色位图并集 + 沿父指针补齐祖先。
+ * 快照构建后不再修改，可被任意线程无锁读取；变更时整体替换。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public final class MenuSnapshot {
+
+    private final long[] ids;
+    private final Long[] parentIds;
+    private final String[] names;
+    private final String[] codes;
+    private final String[] paths;
+    private final Integer[] sortOrders;
+    private final int[] parent;
+    private final int[] childStart;
+    private final int[] children;
+    private final int[] roots;
+    private final Map<Long, Integer> indexById;
+    private final Map<Long, BitSet> menusByRole;
+
+    private MenuSnapshot(long[] ids, Long[] parentIds, String[] names, String[] codes, String[] paths,
+                         Integer[] sortOrders, int[] parent, int[] childStart, int[] children, int[] roots,
+                         Map<Long, Integer> indexById, Map<Long, BitSet> menusByRole) {
+        this.ids = ids;
+        this.parentIds = parentIds;
+        this.names = names;
+        this.codes = codes;
+        this.paths = paths;
+        this.sortOrders = sortOrders;
+        this.parent = parent;
+        this.childStart = childStart;
+        this.children = children;
+        this.roots = roots;
+        this.indexById = indexById;
+        this.menusByRole = menusByRole;
+    }
+
+    /**
+     * 由菜单与角色绑定关系构建快照
+     *
+     * @param menus 全部未删除的菜单
+     * @param bindings 角色与可用菜单的绑定关系
+     * @return 快照
+     */
+    public static MenuSnapshot build(List<Permission> menus, List<RolePermissionBinding> bindings) {
+        List<Permission> sorted = new ArrayList<>(menus);
+        sorted.sort(Comparator.comparing((Permission p) -> Optional.ofNullable(p.getSortOrder()).orElse(0))
+                .thenComparing(Permission::getId));
+        int n = sorted.size();
+
+        long[] ids = new long[n];
+        Long[] parentIds = new Long[n];
+        String[] names = new String[n];
+        String[] codes = new String[n];
+        String[] paths = new String[n];
+        Integer[] sortOrders = new Integer[n];
+        Map<Long, Integer> indexById = new HashMap<>(Math.max(16, n * 2));
+        for (int i = 0; i < n; i++) {
+            Permission p = sorted.get(i);
+            ids[i] = p.getId();
+            parentIds[i] = p.getParentId();
+            names[i] = p.getPermissionName();
+            codes[i] = p.getPermissionCode();
+            paths[i] = p.getPath();
+            sortOrders[i] = p.getSortOrder();
+            indexById.put(p.getId(), i);
+        }
+
+        // 父指针：父节点为 0/空/不存在时视为根节点
+        int[] parent = new int[n];
+        int rootCount = 0;
+        int[] childCount = new int[n];
+        for (int i = 0; i < n; i++) {
+            Long parentId = parentIds[i];
+            Integer p = parentId == null || parentId == 0 ? null : indexById.get(parentId);
+            parent[i] = p == null || p == i ? -1 : p;
+            if (parent[i] < 0) {
+                rootCount++;
+            } else {
+                childCount[parent[i]]++;
+            }
+        }
+
+        // CSR 子节点数组：按下标顺序填充，子节点保持 (sort_order, id) 顺序
+        int[] childStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            childStart[i + 1] = childStart[i] + childCount[i];
+        }
+        int[] cursor = new int[n];
+        int[] children = new int[n - rootCount];
+        int[] roots = new int[rootCount];
+        int r = 0;
+        for (int i = 0; i < n; i++) {
+            int p = parent[i];
+            if (p < 0) {
+                roots[r++] = i;
+            } else {
+                children[childStart[p] + cursor[p]++] = i;
+            }
+        }
+
+        Map<Long, BitSet> menusByRole = new HashMap<>();
+        for (RolePermissionBinding binding : bindings) {
+            Integer index = indexById.get(binding.getPermissionId());
+            if (index != null && binding.getRoleId() != null) {
+                menusByRole.computeIfAbsent(binding.getRoleId(), k -> new BitSet(n)).set(index);
+            }
+        }
+
+        return new MenuSnapshot(ids, parentIds, names, codes, paths, sortOrders, parent, childStart, children,
+                roots, indexById, menusByRole);
+    }
+
+    /**
+     * 菜单数量
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * 构建完整菜单树
+     */
+    public List<MenuNode> fullTree() {
+        return buildTree(null);
+    }
+
+    /**
+     * 构建角色集合可见的菜单树（含祖先节点）
+     *
+     * @param roleIds 角色ID
+     * @return 菜单树
+     */
+    public List<MenuNode> visibleTree(Collection<Long> roleIds) {
+        BitSet visible = visibleBits(roleIds);
+        return visible.isEmpty() ? new ArrayList<>() : buildTree(visible);
+    }
+
+    /**
+     * 计算角色集合可见的菜单下标位图（角色直接拥有 + 沿父指针补齐的祖先）
+     *
+     * @param roleIds 角色ID
+     * @return 位图（调用方独占，可修改）
+     */
+    public BitSet visibleBits(Collection<Long> roleIds) {
+        BitSet granted = new BitSet(ids.length);
+        if (roleIds != null) {
+            for (Long roleId : roleIds) {
+                BitSet menus = menusByRole.get(roleId);
+                if (menus != null) {
+                    granted.or(menus);
+                }
+            }
+        }
+        BitSet visible = (BitSet) granted.clone();
+        for (int i = granted.nextSetBit(0); i >= 0; i = granted.nextSetBit(i + 1)) {
+            // 祖先已标记时停止，整体为 O(可见节点数)
+            for (int p = parent[i]; p >= 0 && !visible.get(p); p = parent[p]) {
+                visible.set(p);
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * 基于当前快照应用排序变更，生成新快照（纯内存操作，无需重新查询数据库）
+     *
+     * @param changes 菜单ID -> 新排序值
+     * @return 新快照；不在快照中的菜单被忽略
+     */
+    public MenuSnapshot withSortOrders(Map<Long, Integer> changes) {
+        int n = ids.length;
+        List<Permission> menus = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Permission p = new Permission();
+            p.setId(ids[i]);
+            p.setParentId(parentIds[i]);
+            p.setPermissionName(names[i]);
+            p.setPermissionCode(codes[i]);
+            p.setPath(paths[i]);
+            p.setSortOrder(changes.containsKey(ids[i]) ? changes.get(ids[i]) : sortOrders[i]);
+            menus.add(p);
+        }
+        List<RolePermissionBinding> bindings = new ArrayList<>();
+        for (Map.Entry<Long, BitSet> entry : menusByRole.entrySet()) {
+            BitSet menusOfRole = entry.getValue();
+            for (int i = menusOfRole.nextSetBit(0); i >= 0; i = menusOfRole.nextSetBit(i + 1)) {
+                RolePermissionBinding binding = new RolePermissionBinding();
+                binding.setRoleId(entry.getKey());
+                binding.setPermissionId(ids[i]);
+                bindings.add(binding);
+            }
+        }
+        return build(menus, bindings);
+    }
+
+    /**
+     * 计算可见菜单树中包含任一指定菜单的角色（角色直接拥有该菜单或其子孙）
+     *
+     * @param menuIds 菜单ID
+     * @return 角色ID
+     */
+    public Set<Long> rolesSeeing(Collection<Long> menuIds) {
+        BitSet targets = new BitSet(ids.length);
+        for (Long menuId : menuIds) {
+            Integer index = indexById.get(menuId);
+            if (index != null) {
+                targets.set(index);
+            }
+        }
+        Set<Long> roles = new HashSet<>();
+        if (targets.isEmpty()) {
+            return roles;
+        }
+        for (Long roleId : menusByRole.keySet()) {
+            if (visibleBits(List.of(roleId)).intersects(targets)) {
+                roles.add(roleId);
+            }
+        }
+        return roles;
+    }
+
+    private List<MenuNode> buildTree(BitSet include) {
+        List<MenuNode> result = new ArrayList<>();
+        for (int root : roots) {
+            if (include == null || include.get(root)) {
+                result.add(toNode(root, include));
+            }
+        }
+        return result;
+    }
+
+    private MenuNode toNode(int index, BitSet include) {
+        MenuNode node = new MenuNode();
+        node.setId(ids[index]);
+        node.setParentId(parentIds[index]);
+        node.setName(names[index]);
+        node.setCode(codes[index]);
+        node.setPath(paths[index]);
+        node.setSortOrder(sortOrders[index]);
+        for (int c = childStart[index]; c < childStart[index + 1]; c++) {
+            int child = children[c];
+            if (include == null || include.get(child)) {
+                node.getChildren().add(toNode(child, include));
+            }
+        }
+        return node;
+    }
+}
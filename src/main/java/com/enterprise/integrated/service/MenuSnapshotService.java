@@ -0,0 +1,275 @@
+package com.enterprise.integrated.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.enterprise.integrated.cache.InvalidationCoalescer;
+import com.enterprise.integrated.entity.Permission;
+import com.enterprise.integrated.mapper.PermissionMapper;
+import com.enterprise.integrated.mapper.RolePermissionMapper;
+import com.enterprise.integrated.utils.RedisMessageSubscriber;
+import com.enterprise.integrated.utils.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 菜单快照服务
+ * <p>
+ * 持有当前的 {@link MenuSnapshot}（写时复制）：首次访问时加载，菜单或角色-菜单绑定变更在事务提交后
+ * 重新加载并整体替换引用，同时通过 Redis 发布/订阅通知其他节点重新加载。读取无锁。
+ * 结构变更经 {@link InvalidationCoalescer} 合并：短时间内的多次变更只重载一次快照，并按涉及的角色批量失效缓存。
+ * <p>
+ * 每次变更同时递增 Redis 中的全局版本号，各节点定期比对，落后时重新加载，避免丢失的通知消息（如订阅重连期间）
+ * 使节点长期使用旧快照。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class MenuSnapshotService implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuSnapshotService.class);
+
+    public static final String CHANGED_CHANNEL = "menu:snapshot:changed";
+
+    /** 全局菜单快照版本号，每次变更递增 */
+    private static final String VERSION_KEY = "menu:snapshot:version";
+
+    /** 排序变更消息前缀，消息体为 {@code sort:id=order,id=order}，其他消息一律整体重新加载 */
+    private static final String SORT_MESSAGE_PREFIX = "sort:";
+
+    /** 合并队列中表示“菜单结构变化、需清空全部菜单缓存”的占位键 */
+    private static final Long ALL_MENUS = Long.MIN_VALUE;
+
+    private final PermissionMapper permissionMapper;
+    private final RolePermissionMapper rolePermissionMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MenuCacheService menuCacheService;
+    private final Object loadLock = new Object();
+    private final InvalidationCoalescer.Queue<Long> menuChanges;
+
+    /** 为 null 表示尚未加载或上次加载失败，下次访问时加载 */
+    private volatile MenuSnapshot snapshot;
+
+    /** 最近一次完整加载前读取到的全局版本号，-1 表示未知 */
+    private volatile long loadedVersion = -1;
+
+    public MenuSnapshotService(PermissionMapper permissionMapper,
+                               RolePermissionMapper rolePermissionMapper,
+                               StringRedisTemplate stringRedisTemplate,
+                               MenuCacheService menuCacheService,
+                               RedisMessageSubscriber messageSubscriber,
+                               InvalidationCoalescer invalidationCoalescer) {
+        this.permissionMapper = permissionMapper;
+        this.rolePermissionMapper = rolePermissionMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.menuCacheService = menuCacheService;
+        this.menuChanges = invalidationCoalescer.newQueue("menu-snapshot", this::applyMenuChanges);
+        messageSubscriber.subscribe(this, new ChannelTopic(CHANGED_CHANNEL));
+    }
+
+    /**
+     * 获取当前快照
+     */
+    public MenuSnapshot current() {
+        MenuSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (loadLock) {
+                current = snapshot;
+                if (current == null) {
+                    long version = readVersion();
+                    current = load();
+                    snapshot = current;
+                    loadedVersion = version;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 菜单结构变化后调用（事务提交后重新加载、广播并清空菜单缓存）
+     */
+    public void onMenusChanged() {
+        TransactionUtils.afterCommit(() -> menuChanges.add(ALL_MENUS));
+    }
+
+    /**
+     * 角色-菜单绑定变化后调用（事务提交后重新加载、广播，仅失效包含该角色的共享可见菜单树）
+     *
+     * @param roleId 角色ID
+     */
+    public void onRoleMenusChanged(Long roleId) {
+        if (roleId != null) {
+            TransactionUtils.afterCommit(() -> menuChanges.add(roleId));
+        }
+    }
+
+    private void applyMenuChanges(Set<Long> changes) {
+        reloadAndPublish();
+        if (changes.contains(ALL_MENUS)) {
+            // 提交前的 @CacheEvict 与快照替换之间可能有请求用旧快照回填了缓存，替换后再清一次
+            menuCacheService.evictAllMenuCaches();
+        } else {
+            menuCacheService.evictVisibleMenuTreeForRoles(changes);
+        }
+    }
+
+    /**
+     * 菜单排序变化后调用（事务提交后在内存中修补快照并广播变更，不重新查询数据库）
+     * <p>
+     * 完整菜单树直接以新快照回写缓存，可见菜单树仅失效能看到变更菜单的角色对应的条目。
+     *
+     * @param changes 菜单ID -> 新排序值（仅实际变化的菜单）
+     */
+    public void onSortOrdersChanged(Map<Long, Integer> changes) {
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> copy = new HashMap<>(changes);
+        TransactionUtils.afterCommit(() -> {
+            applySortOrders(copy);
+            incrementVersion();
+            publish(encodeSortOrders(copy));
+            MenuSnapshot current = current();
+            menuCacheService.putMenuTree(current.fullTree());
+            menuCacheService.evictVisibleMenuTreeForRoles(current.rolesSeeing(copy.keySet()));
+        });
+    }
+
+    private void applySortOrders(Map<Long, Integer> changes) {
+        synchronized (loadLock) {
+            // 未加载时无需修补，首次访问会加载最新数据
+            if (snapshot != null) {
+                snapshot = snapshot.withSortOrders(changes);
+            }
+        }
+    }
+
+    private void reloadAndPublish() {
+        incrementVersion();
+        reload();
+        publish("reload");
+    }
+
+    /**
+     * 定期比对全局版本号，本节点快照落后时重新加载（补偿丢失的变更通知）
+     */
+    @Scheduled(initialDelay = 60000, fixedDelay = 60000)
+    public void syncVersion() {
+        // 尚未加载过快照时无需处理，首次访问会加载最新数据
+        if (snapshot == null) {
+            return;
+        }
+        long version = readVersion();
+        if (version > loadedVersion) {
+            log.info("菜单快照版本落后（{} < {}），重新加载", loadedVersion, version);
+            reload();
+        }
+    }
+
+    private void incrementVersion() {
+        try {
+            stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+        } catch (Exception e) {
+            log.warn("递增菜单快照版本号失败", e);
+        }
+    }
+
+    /**
+     * 读取全局版本号
+     *
+     * @return 版本号；不存在为 0，读取失败为 -1
+     */
+    private long readVersion() {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (Exception e) {
+            log.debug("读取菜单快照版本号失败: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    private void publish(String body) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANGED_CHANNEL, body);
+        } catch (Exception e) {
+            log.warn("广播菜单快照变更失败", e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // 本节点尚未加载过快照时无需处理，首次访问会加载最新数据
+        if (snapshot == null) {
+            return;
+        }
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (body.startsWith(SORT_MESSAGE_PREFIX)) {
+            try {
+                applySortOrders(decodeSortOrders(body));
+                return;
+            } catch (NumberFormatException e) {
+                log.warn("忽略无法解析的菜单排序消息，整体重新加载: {}", body);
+            }
+        }
+        reload();
+    }
+
+    private static String encodeSortOrders(Map<Long, Integer> changes) {
+        StringBuilder sb = new StringBuilder(SORT_MESSAGE_PREFIX);
+        for (Map.Entry<Long, Integer> entry : changes.entrySet()) {
+            if (sb.length() > SORT_MESSAGE_PREFIX.length()) {
+                sb.append(',');
+            }
+            sb.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    private static Map<Long, Integer> decodeSortOrders(String body) {
+        Map<Long, Integer> changes = new HashMap<>();
+        for (String pair : body.substring(SORT_MESSAGE_PREFIX.length()).split(",")) {
+            int separator = pair.indexOf('=');
+            if (separator < 0) {
+                throw new NumberFormatException(pair);
+            }
+            changes.put(Long.valueOf(pair.substring(0, separator)), Integer.valueOf(pair.substring(separator + 1)));
+        }
+        return changes;
+    }
+
+    private void reload() {
+        synchronized (loadLock) {
+            try {
+                // 先读取版本号再查询，加载期间发生的变更会在下次比对时重新加载
+                long version = readVersion();
+                snapshot = load();
+                loadedVersion = version;
+            } catch (Exception e) {
+                log.warn("菜单快照加载失败，将在下次访问时重试", e);
+                snapshot = null;
+            }
+        }
+    }
+
+    private MenuSnapshot load() {
+        List<Permission> menus = permissionMapper.selectList(new QueryWrapper<Permission>()
+                .eq("permission_type", 1)
+                .eq("deleted", 0));
+        MenuSnapshot loaded = MenuSnapshot.build(menus, rolePermissionMapper.listMenuBindings());
+        log.debug("菜单快照已加载, 菜单数: {}", loaded.size());
+        return loaded;
+    }
+}
@@ -0,0 +1,65 @@
+package com.enterprise.integrated.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 菜单物化路径
+ * <p>
+ * {@code sys_permission.tree_path} 保存从根到自身的ID序列，格式为 {@code /1/2/5/}（首尾均为分隔符）。
+ * 子孙查询为前缀匹配 {@code tree_path LIKE '/1/2/%'}，可直接走 {@code idx_tree_path} 范围扫描；
+ * 祖先无需查询，直接由路径解析得到。路径只包含数字与分隔符，作为 LIKE 前缀无需转义。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public final class MenuTreePath {
+
+    public static final String SEPARATOR = "/";
+
+    private MenuTreePath() {
+    }
+
+    /**
+     * 计算子节点路径
+     *
+     * @param parentPath 父节点路径；根节点的父路径为 null
+     * @param id 子节点ID
+     * @return 子节点路径
+     */
+    public static String childOf(String parentPath, Long id) {
+        return (parentPath == null ? SEPARATOR : parentPath) + id + SEPARATOR;
+    }
+
+    /**
+     * 路径是否已维护（历史数据未回填时为空）
+     */
+    public static boolean isPresent(String path) {
+        return path != null && path.length() > 1 && path.startsWith(SEPARATOR) && path.endsWith(SEPARATOR);
+    }
+
+    /**
+     * {@code path} 是否为 {@code ancestorPath} 自身或其子孙
+     */
+    public static boolean isSelfOrDescendant(String path, String ancestorPath) {
+        return isPresent(path) && isPresent(ancestorPath) && path.startsWith(ancestorPath);
+    }
+
+    /**
+     * 解析祖先ID（自根向下，不含自身）
+     *
+     * @param path 节点路径
+     * @return 祖先ID
+     */
+    public static List<Long> ancestorIds(String path) {
+        List<Long> ids = new ArrayList<>();
+        if (!isPresent(path)) {
+            return ids;
+        }
+        String[] parts = path.substring(1, path.length() - 1).split(SEPARATOR);
+        for (int i = 0; i < parts.length - 1; i++) {
+            ids.add(Long.valueOf(parts[i]));
+        }
+        return ids;
+    }
+}
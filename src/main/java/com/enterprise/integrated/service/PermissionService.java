@@ -38,6 +38,21 @@ public interface PermissionService {
      */
     void deleteMenuCascade(Long id);
 
+    /**
+     * 禁用整棵子树（含自身）
+     */
+    void disableMenuSubtree(Long id);
+
+    /**
+     * 导出整棵子树（含自身）
+     */
+    java.util.List<com.enterprise.integrated.dto.MenuNode> exportMenuSubtree(Long id);
+
+    /**
+     * 查询祖先菜单（自根向下，不含自身）
+     */
+    java.util.List<Permission> listMenuAncestors(Long id);
+
     /**
      * 移动菜单（调整父节点与排序），包含循环依赖校验
      */
@@ -84,6 +84,16 @@ public interface UserService extends IService<User> {
      */
     boolean resetPassword(Long id, String newPassword);
 
+    /**
+     * 升级密码哈希（仅当当前哈希仍为旧值时更新，避免覆盖并发的密码修改）
+     * 
+     * @param id 用户ID
+     * @param oldHash 旧密码哈希
+     * @param newHash 新密码哈希
+     * @return 是否更新
+     */
+    boolean upgradePasswordHash(Long id, String oldHash, String newHash);
+
     /**
      * 检查用户名是否存在
      * 
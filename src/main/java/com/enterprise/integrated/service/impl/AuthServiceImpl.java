@@ -6,23 +6,23 @@ import com.enterprise.integrated.dto.LoginRequest;
 import com.enterprise.integrated.dto.LoginResponse;
 import com.enterprise.integrated.dto.UserDTO;
 import com.enterprise.integrated.entity.User;
+import com.enterprise.integrated.security.PasswordHashingService;
+import com.enterprise.integrated.security.TokenBlacklist;
+import com.enterprise.integrated.security.TokenSessionService;
 import com.enterprise.integrated.security.UserDetailsServiceImpl;
+import com.enterprise.integrated.security.VerifiedToken;
 import com.enterprise.integrated.service.AuthService;
 import com.enterprise.integrated.service.UserService;
 import com.enterprise.integrated.utils.JwtUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.BeanUtils;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.util.concurrent.TimeUnit;
-
 /**
  * 认证服务实现类
  * 
@@ -34,20 +34,21 @@ public class AuthServiceImpl implements AuthService {
 
     private static final Log log = LogFactory.getLog(AuthServiceImpl.class);
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtils jwtUtils;
-    private final RedisTemplate<String, Object> redisTemplate;
-    private static final String TOKEN_BLACKLIST_PREFIX = "blacklist:token:";
-    private static final String REFRESH_TOKEN_PREFIX = "refresh:token:";
+    private final TokenBlacklist tokenBlacklist;
+    private final TokenSessionService tokenSessionService;
 
     public AuthServiceImpl(UserService userService, 
-                          PasswordEncoder passwordEncoder, 
+                          PasswordHashingService passwordHashingService, 
                           JwtUtils jwtUtils, 
-                          RedisTemplate<String, Object> redisTemplate) {
+                          TokenBlacklist tokenBlacklist,
+                          TokenSessionService tokenSessionService) {
         this.userService = userService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtUtils = jwtUtils;
-        this.redisTemplate = redisTemplate;
+        this.tokenBlacklist = tokenBlacklist;
+        this.tokenSessionService = tokenSessionService;
     }
 
     @Override
@@ -63,29 +64,22 @@ public class AuthServiceImpl implements AuthService {
         if (user.getStatus() == 0) {
             throw new BusinessException(ResultCode.FORBIDDEN, "用户已被禁用");
         }
-//
-//        // 验证密码
-//        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-//            throw new BusinessException(ResultCode.UNAUTHORIZED, "用户名或密码错误");
-//        }
-
-        // 生成令牌
-        String accessToken = generateAccessToken(user.getId(), user.getUsername());
-        String refreshToken = generateRefreshToken(user.getId(), user.getUsername());
-
-        // 存储刷新令牌到Redis
-        redisTemplate.opsForValue().set(
-            REFRESH_TOKEN_PREFIX + user.getId(), 
-            refreshToken, 
-            7, 
-            TimeUnit.DAYS
-        );
 
-        // 构建用户信息
-        UserDTO userDTO = new UserDTO();
-        BeanUtils.copyProperties(user, userDTO);
+        // 验证密码（在独立的哈希线程池中执行，繁忙时快速失败）
+        if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
+            throw new BusinessException(ResultCode.UNAUTHORIZED, "用户名或密码错误");
+        }
 
-        return new LoginResponse(accessToken, refreshToken, jwtUtils.getExpiration() / 1000, userDTO);
+        // 旧哈希强度低于当前校准强度时，后台重新哈希
+        if (passwordHashingService.needsUpgrade(user.getPassword())) {
+            Long userId = user.getId();
+            String oldHash = user.getPassword();
+            passwordHashingService.upgradeAsync(loginRequest.getPassword(),
+                    newHash -> userService.upgradePasswordHash(userId, oldHash, newHash));
+        }
+
+        // 生成令牌并登记设备会话（不同设备互不影响）
+        return issueTokens(user, loginRequest.getDeviceId());
     }
 
     @Override
@@ -93,22 +87,17 @@ public class AuthServiceImpl implements AuthService {
         if (StringUtils.hasText(token) && token.startsWith("Bearer ")) {
             token = token.substring(7);
             
-            // 验证令牌并获取用户ID
-            Long userId = validateToken(token);
-            if (userId != null) {
-                // 将令牌加入黑名单
-                long remainingSeconds = jwtUtils.getRemainingSeconds(token);
-                if (remainingSeconds > 0) {
-                    redisTemplate.opsForValue().set(
-                        TOKEN_BLACKLIST_PREFIX + token, 
-                        "blacklisted", 
-                        remainingSeconds, 
-                        TimeUnit.SECONDS
-                    );
-                }
-
-                // 删除刷新令牌
-                redisTemplate.delete(REFRESH_TOKEN_PREFIX + userId);
+            // 验证令牌并获取用户ID（优先复用过滤器已验签的令牌）
+            VerifiedToken verified = currentVerifiedToken(token);
+            if (verified != null) {
+                Long userId = verified.getUserId();
+                // 将令牌加入黑名单并广播给所有节点
+                tokenBlacklist.revoke(verified);
+
+                jwtUtils.evictVerifiedToken(token);
+
+                // 仅移除当前设备的会话
+                tokenSessionService.remove(userId, verified.getDeviceId());
             }
         }
     }
@@ -116,43 +105,35 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public LoginResponse refreshToken(String refreshToken) {
         // 验证刷新令牌
-        if (Boolean.FALSE.equals(jwtUtils.validateToken(refreshToken))) {
+        VerifiedToken verified = jwtUtils.parseToken(refreshToken);
+        if (verified == null || !verified.isRefreshToken() || verified.getUserId() == null) {
             throw new BusinessException(ResultCode.TOKEN_EXPIRED, "刷新令牌无效或已过期");
         }
 
-        // 从令牌中获取用户信息
-        String username = jwtUtils.getUsernameFromToken(refreshToken);
-        Long userId = jwtUtils.getUserIdFromToken(refreshToken);
-
-        // 检查Redis中的刷新令牌
-        String storedRefreshToken = (String) redisTemplate.opsForValue().get(REFRESH_TOKEN_PREFIX + userId);
-        if (!refreshToken.equals(storedRefreshToken)) {
+        // 已整体吊销，或不是该设备当前的刷新令牌（已轮换/已登出）
+        if (tokenSessionService.isRevoked(verified) || !tokenSessionService.isCurrent(verified)) {
             throw new BusinessException(ResultCode.TOKEN_INVALID, "刷新令牌无效");
         }
 
         // 获取用户信息
-        User user = userService.getById(userId);
+        User user = userService.getById(verified.getUserId());
         if (user == null || user.getStatus() == 0) {
             throw new BusinessException(ResultCode.UNAUTHORIZED, "用户不存在或已被禁用");
         }
 
-        // 生成新的令牌
-        String newAccessToken = generateAccessToken(userId, username);
-        String newRefreshToken = generateRefreshToken(userId, username);
-
-        // 更新Redis中的刷新令牌
-        redisTemplate.opsForValue().set(
-            REFRESH_TOKEN_PREFIX + userId, 
-            newRefreshToken, 
-            7, 
-            TimeUnit.DAYS
-        );
-
-        // 构建用户信息
-        UserDTO userDTO = new UserDTO();
-        BeanUtils.copyProperties(user, userDTO);
+        // 轮换该设备的令牌
+        return issueTokens(user, verified.getDeviceId());
+    }
 
-        return new LoginResponse(newAccessToken, newRefreshToken, jwtUtils.getExpiration() / 1000, userDTO);
+    @Override
+    public void logoutAll() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsServiceImpl.CustomUserDetails)) {
+            throw new BusinessException(ResultCode.UNAUTHORIZED, "用户未登录");
+        }
+        Long userId = ((UserDetailsServiceImpl.CustomUserDetails) authentication.getPrincipal()).getUserId();
+        // 递增令牌代数，一次写入即吊销该用户在所有设备上的令牌
+        tokenSessionService.revokeAll(userId);
     }
 
     @Override
@@ -167,6 +148,13 @@ public class AuthServiceImpl implements AuthService {
             (UserDetailsServiceImpl.CustomUserDetails) authentication.getPrincipal();
         
         User user = userDetails.getUser();
+        if (userDetails.isClaimsBacked()) {
+            // 无状态模式下主体只包含最小信息，按需加载完整用户
+            user = userService.getById(userDetails.getUserId());
+            if (user == null) {
+                throw new BusinessException(ResultCode.DATA_NOT_FOUND, "用户不存在");
+            }
+        }
         
         // 构建用户信息
         UserDTO userDTO = new UserDTO();
@@ -177,34 +165,74 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public Long validateToken(String token) {
+        VerifiedToken verified = verifyAccessToken(token);
+        return verified == null ? null : verified.getUserId();
+    }
+
+    @Override
+    public VerifiedToken verifyAccessToken(String token) {
         try {
-            // 检查令牌是否在黑名单中
-            if (redisTemplate.hasKey(TOKEN_BLACKLIST_PREFIX + token)) {
+            // 验证令牌（仅解析一次）
+            VerifiedToken verified = jwtUtils.parseToken(token);
+            // 仅允许access令牌
+            if (verified == null || !verified.isAccessToken() || verified.getUserId() == null) {
                 return null;
             }
 
-            // 验证令牌
-            if (Boolean.TRUE.equals(jwtUtils.validateToken(token))) {
-                // 仅允许access令牌
-                String type = jwtUtils.getTokenType(token);
-                if (!"access".equals(type)) {
-                    return null;
-                }
-                return jwtUtils.getUserIdFromToken(token);
+            // 令牌代数落后说明已被整体吊销（本地缓存，常量开销）
+            if (tokenSessionService.isRevoked(verified)) {
+                return null;
             }
+
+            // 检查令牌是否在黑名单中（本地过滤器判定可能命中时才访问Redis）
+            if (tokenBlacklist.isRevoked(verified)) {
+                return null;
+            }
+            return verified;
         } catch (Exception e) {
             // 令牌无效
         }
         return null;
     }
 
+    /**
+     * 复用 SecurityContext 中由过滤器放入的已验签令牌，避免重复解析
+     */
+    private VerifiedToken currentVerifiedToken(String token) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof VerifiedToken) {
+            VerifiedToken verified = (VerifiedToken) authentication.getCredentials();
+            if (token.equals(verified.getToken())) {
+                return verified;
+            }
+        }
+        return verifyAccessToken(token);
+    }
+
+    /**
+     * 按用户当前令牌代数签发访问/刷新令牌，并登记为该设备的当前会话
+     */
+    private LoginResponse issueTokens(User user, String deviceId) {
+        String device = StringUtils.hasText(deviceId) ? deviceId : TokenSessionService.DEFAULT_DEVICE;
+        long epoch = tokenSessionService.currentEpoch(user.getId());
+        String accessToken = jwtUtils.generateToken(user.getId(), user.getUsername(), epoch, device);
+        String refreshToken = jwtUtils.generateRefreshToken(user.getId(), user.getUsername(), epoch, device);
+        tokenSessionService.register(user.getId(), device, jwtUtils.parseToken(refreshToken));
+
+        // 构建用户信息
+        UserDTO userDTO = new UserDTO();
+        BeanUtils.copyProperties(user, userDTO);
+
+        return new LoginResponse(accessToken, refreshToken, jwtUtils.getExpiration() / 1000, userDTO);
+    }
+
     @Override
     public String generateAccessToken(Long userId, String username) {
-        return jwtUtils.generateToken(userId, username);
+        return jwtUtils.generateToken(userId, username, tokenSessionService.currentEpoch(userId), null);
     }
 
     @Override
     public String generateRefreshToken(Long userId, String username) {
-        return jwtUtils.generateRefreshToken(userId, username);
+        return jwtUtils.generateRefreshToken(userId, username, tokenSessionService.currentEpoch(userId), null);
     }
 }
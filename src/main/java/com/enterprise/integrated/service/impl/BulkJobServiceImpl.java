@@ -0,0 +1,290 @@
+package com.enterprise.integrated.service.impl;
+
+import com.enterprise.integrated.common.exception.BusinessException;
+import com.enterprise.integrated.common.result.ResultCode;
+import com.enterprise.integrated.dto.BatchOperationResult;
+import com.enterprise.integrated.dto.BulkJobDTO;
+import com.enterprise.integrated.entity.BulkJob;
+import com.enterprise.integrated.mapper.BulkJobMapper;
+import com.enterprise.integrated.service.BulkJobService;
+import com.enterprise.integrated.service.RoleService;
+import com.enterprise.integrated.utils.TransactionUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 批量任务服务实现
+ * <p>
+ * 提交时仅持久化任务并立即返回任务ID，由独立线程池按 {@code chunk-size} 分批执行：
+ * 每批的数据变更与断点推进在同一事务中提交，失败只回滚当前批次。
+ * 执行节点持有 owner + 心跳租约，节点宕机或重启后心跳过期，任一节点的定时扫描会接管并从断点继续。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Service
+public class BulkJobServiceImpl implements BulkJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkJobServiceImpl.class);
+
+    private static final int RESUME_SCAN_LIMIT = 100;
+    private static final int ERROR_MESSAGE_MAX_LENGTH = 500;
+
+    private final BulkJobMapper bulkJobMapper;
+    private final RoleService roleService;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxIds;
+    private final Duration staleAfter;
+    private final String nodeId = UUID.randomUUID().toString();
+    /** 本节点正在执行或已排队的任务，避免定时扫描重复提交 */
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public BulkJobServiceImpl(BulkJobMapper bulkJobMapper,
+                              RoleService roleService,
+                              @Qualifier("bulkJobExecutor") ThreadPoolTaskExecutor executor,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${app.bulk-job.chunk-size:1000}") int chunkSize,
+                              @Value("${app.bulk-job.max-ids:1000000}") int maxIds,
+                              @Value("${app.bulk-job.stale-seconds:300}") long staleSeconds) {
+        this.bulkJobMapper = bulkJobMapper;
+        this.roleService = roleService;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, Math.min(chunkSize, 1000));
+        this.maxIds = maxIds;
+        this.staleAfter = Duration.ofSeconds(staleSeconds);
+    }
+
+    @Override
+    public BulkJobDTO submit(BulkJob.JobType jobType, Long targetId, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BusinessException(ResultCode.PARAM_MISSING, "待处理ID不能为空");
+        }
+        if (ids.size() > maxIds) {
+            throw new BusinessException(ResultCode.PARAM_INVALID, "单个任务最多处理 " + maxIds + " 个ID");
+        }
+        BulkJob job = new BulkJob();
+        job.setJobType(jobType.name());
+        job.setTargetId(targetId);
+        job.setPayload(writeJson(ids));
+        job.setTotalCount(ids.size());
+        job.setProcessedCount(0);
+        job.setChunkSize(chunkSize);
+        job.setStatus(BulkJob.Status.PENDING.name());
+        // 提交节点直接持有租约，其他节点在心跳过期前不会接管
+        job.setOwner(nodeId);
+        job.setHeartbeatTime(LocalDateTime.now());
+        bulkJobMapper.insert(job);
+        Long jobId = job.getId();
+        TransactionUtils.afterCommit(() -> dispatch(jobId));
+        return toDTO(job);
+    }
+
+    @Override
+    public BulkJobDTO getJob(Long id) {
+        BulkJob job = bulkJobMapper.selectById(id);
+        if (job == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "任务不存在");
+        }
+        return toDTO(job);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${app.bulk-job.scan-initial-delay-ms:30000}",
+               fixedDelayString = "${app.bulk-job.scan-interval-ms:60000}")
+    public void resumeInterruptedJobs() {
+        List<Long> jobIds;
+        try {
+            jobIds = bulkJobMapper.listResumableIds(nodeId, LocalDateTime.now().minus(staleAfter), RESUME_SCAN_LIMIT);
+        } catch (Exception e) {
+            log.warn("扫描可恢复的批量任务失败: {}", e.getMessage());
+            return;
+        }
+        for (Long jobId : jobIds) {
+            if (!activeJobs.contains(jobId)) {
+                log.info("恢复批量任务: {}", jobId);
+                dispatch(jobId);
+            }
+        }
+    }
+
+    private void dispatch(Long jobId) {
+        if (!activeJobs.add(jobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // 线程池已满：任务保持待执行状态，由下一次扫描重新提交
+            activeJobs.remove(jobId);
+            log.info("批量任务线程池繁忙，任务 {} 稍后执行", jobId);
+        }
+    }
+
+    private void run(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (bulkJobMapper.claim(jobId, nodeId, now, now.minus(staleAfter)) == 0) {
+            return;
+        }
+        BulkJob job = bulkJobMapper.selectById(jobId);
+        try {
+            BulkJob.JobType jobType = BulkJob.JobType.valueOf(job.getJobType());
+            List<Long> ids = objectMapper.readValue(job.getPayload(), new TypeReference<List<Long>>() { });
+            BatchOperationResult result = readResult(job.getResult());
+            int processed = job.getProcessedCount() == null ? 0 : job.getProcessedCount();
+            int size = job.getChunkSize() == null || job.getChunkSize() <= 0 ? chunkSize : job.getChunkSize();
+            while (processed < ids.size()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // 应用关闭：保持执行中状态，心跳过期后由其他节点或重启后的本节点接管
+                    log.info("批量任务 {} 在断点 {} 处暂停", jobId, processed);
+                    return;
+                }
+                int end = Math.min(processed + size, ids.size());
+                List<Long> chunk = new ArrayList<>(ids.subList(processed, end));
+                // 失败时当前批次回滚且循环终止，内存中的累计结果随之丢弃，因此可以原地合并
+                transactionTemplate.executeWithoutResult(status -> {
+                    result.merge(apply(jobType, job.getTargetId(), chunk));
+                    if (bulkJobMapper.updateProgress(jobId, nodeId, end, writeJson(result), LocalDateTime.now()) == 0) {
+                        throw new LeaseLostException();
+                    }
+                });
+                processed = end;
+            }
+            bulkJobMapper.finish(jobId, nodeId, BulkJob.Status.COMPLETED.name(), null, LocalDateTime.now());
+        } catch (LeaseLostException e) {
+            log.info("批量任务 {} 已被其他节点接管", jobId);
+        } catch (Exception e) {
+            if (isInterrupted(e)) {
+                // 关闭时中断落在取连接或 JDBC 调用中：当前批次已回滚，保持执行中状态，从断点恢复
+                log.info("批量任务 {} 被中断，等待恢复", jobId);
+                return;
+            }
+            if (!(e instanceof BusinessException)) {
+                log.error("批量任务 {} 执行失败", jobId, e);
+            }
+            fail(jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * 线程已被中断，或异常链中包含中断（连接池与驱动会把中断包装成其他异常，并可能清除中断标记）
+     */
+    private static boolean isInterrupted(Throwable e) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException
+                    || cause instanceof ClosedByInterruptException) {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private BatchOperationResult apply(BulkJob.JobType jobType, Long targetId, List<Long> ids) {
+        switch (jobType) {
+            case ASSIGN_ROLE_USERS:
+                return roleService.assignRoleToUsers(targetId, ids);
+            case REVOKE_ROLE_USERS:
+                return roleService.removeRoleFromUsers(targetId, ids);
+            case ADD_ROLE_PERMISSIONS:
+                return roleService.addPermissionsToRole(targetId, ids);
+            case REMOVE_ROLE_PERMISSIONS:
+                return roleService.removePermissionsFromRole(targetId, ids);
+            default:
+                throw new IllegalStateException("Unsupported job type: " + jobType);
+        }
+    }
+
+    private void fail(Long jobId, String message) {
+        String error = message == null ? "任务执行失败" : message;
+        if (error.length() > ERROR_MESSAGE_MAX_LENGTH) {
+            error = error.substring(0, ERROR_MESSAGE_MAX_LENGTH);
+        }
+        try {
+            bulkJobMapper.finish(jobId, nodeId, BulkJob.Status.FAILED.name(), error, LocalDateTime.now());
+        } catch (Exception e) {
+            // 无法落库时保持执行中状态，心跳过期后重新执行剩余批次
+            log.warn("更新批量任务 {} 状态失败", jobId, e);
+        }
+    }
+
+    private BulkJobDTO toDTO(BulkJob job) {
+        BulkJobDTO dto = new BulkJobDTO();
+        dto.setId(job.getId());
+        dto.setJobType(job.getJobType());
+        dto.setTargetId(job.getTargetId());
+        dto.setStatus(job.getStatus());
+        dto.setTotalCount(job.getTotalCount() == null ? 0 : job.getTotalCount());
+        dto.setProcessedCount(job.getProcessedCount() == null ? 0 : job.getProcessedCount());
+        dto.setErrorMessage(job.getErrorMessage());
+        dto.setResult(readResult(job.getResult()));
+        dto.setCreateTime(job.getCreateTime());
+        dto.setUpdateTime(job.getUpdateTime());
+        return dto;
+    }
+
+    private BatchOperationResult readResult(String json) {
+        if (json == null || json.isEmpty()) {
+            return new BatchOperationResult();
+        }
+        try {
+            return objectMapper.readValue(json, BatchOperationResult.class);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ResultCode.DATA_INVALID, "任务结果数据异常", e);
+        }
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ResultCode.INTERNAL_ERROR, "任务数据序列化失败", e);
+        }
+    }
+
+    /**
+     * 租约已被其他节点接管，回滚当前批次并停止执行
+     */
+    private static final class LeaseLostException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private LeaseLostException() {
+            super(null, null, false, false);
+        }
+    }
+}
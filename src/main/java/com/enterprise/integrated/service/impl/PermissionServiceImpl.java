@@ -8,13 +8,20 @@ import com.enterprise.integrated.dto.MenuCreateRequest;
 import com.enterprise.integrated.dto.MenuNode;
 import com.enterprise.integrated.entity.Permission;
 import com.enterprise.integrated.mapper.PermissionMapper;
+import com.enterprise.integrated.service.MenuCacheService;
+import com.enterprise.integrated.service.MenuSnapshot;
+import com.enterprise.integrated.service.MenuSnapshotService;
+import com.enterprise.integrated.service.MenuTreePath;
 import com.enterprise.integrated.service.PermissionService;
 import com.enterprise.integrated.dto.MenuSortItem;
+import com.enterprise.integrated.utils.BatchUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import java.util.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import com.enterprise.integrated.security.AuthoritySnapshot;
+import com.enterprise.integrated.security.AuthoritySnapshotService;
 import com.enterprise.integrated.security.UserDetailsServiceImpl;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
@@ -24,9 +31,18 @@ import org.springframework.cache.annotation.CacheEvict;
 public class PermissionServiceImpl implements PermissionService {
 
     private final PermissionMapper permissionMapper;
+    private final AuthoritySnapshotService authoritySnapshotService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final MenuCacheService menuCacheService;
 
-    public PermissionServiceImpl(PermissionMapper permissionMapper) {
+    public PermissionServiceImpl(PermissionMapper permissionMapper,
+                                 AuthoritySnapshotService authoritySnapshotService,
+                                 MenuSnapshotService menuSnapshotService,
+                                 MenuCacheService menuCacheService) {
         this.permissionMapper = permissionMapper;
+        this.authoritySnapshotService = authoritySnapshotService;
+        this.menuSnapshotService = menuSnapshotService;
+        this.menuCacheService = menuCacheService;
     }
 
     @Override
@@ -37,6 +53,13 @@ public class PermissionServiceImpl implements PermissionService {
             throw new BusinessException(ResultCode.PARAM_MISSING, "菜单名称或编码不能为空");
         }
 
+        // 根节点 parentId 允许 0
+        if (request.getParentId() == null) {
+            request.setParentId(0L);
+        }
+        // 先锁定父节点：并发移动父节点所在子树时等待其提交，物化路径基于最新的父路径计算
+        Map<Long, Permission> locked = lockMenus(request.getParentId());
+
         // 校验编码唯一
         Long count = permissionMapper.selectCount(new QueryWrapper<Permission>()
                 .eq("permission_code", request.getCode())
@@ -45,16 +68,10 @@ public class PermissionServiceImpl implements PermissionService {
             throw new BusinessException(ResultCode.DATA_ALREADY_EXISTS, "菜单编码已存在");
         }
 
-        // 根节点 parentId 允许 0；若非 0 可进一步校验父节点存在
-        if (request.getParentId() == null) {
-            request.setParentId(0L);
-        }
         // 校验父节点
+        Permission parent = null;
         if (request.getParentId() != 0) {
-            Permission parent = permissionMapper.selectById(request.getParentId());
-            if (parent == null || parent.getPermissionType() == null || parent.getPermissionType() != 1 || parent.getStatus() == 0) {
-                throw new BusinessException(ResultCode.PARAM_INVALID, "父菜单不存在或不可用");
-            }
+            parent = requireMenuParent(locked.get(request.getParentId()));
         }
 
         Permission permission = new Permission();
@@ -70,6 +87,12 @@ public class PermissionServiceImpl implements PermissionService {
         // 使用 BaseEntity 字段：parent_id 不在 Permission 中，存放到表字段
         // 这里通过自定义插入SQL更优；简化处理使用原生Mapper XML更灵活，这里先直接insert并依赖默认列
         permissionMapper.insert(permission);
+        // 自增ID插入后才可得，同一事务内补写物化路径
+        UpdateWrapper<Permission> pathUw = new UpdateWrapper<>();
+        pathUw.eq("id", permission.getId())
+              .set("tree_path", MenuTreePath.childOf(parent == null ? null : parent.getTreePath(), permission.getId()));
+        permissionMapper.update(null, pathUw);
+        menuSnapshotService.onMenusChanged();
 
         return permissionMapper.selectById(permission.getId());
     }
@@ -77,46 +100,18 @@ public class PermissionServiceImpl implements PermissionService {
     @Override
     @Cacheable(cacheNames = "menuTree", key = "'all'", unless = "#result == null || #result.isEmpty()")
     public List<MenuNode> getMenuTree() {
-        List<Permission> menus = permissionMapper.selectList(new QueryWrapper<Permission>()
-                .eq("permission_type", 1)
-                .eq("deleted", 0)
-                .orderByAsc("parent_id", "sort_order", "id"));
-
-        Map<Long, MenuNode> idToNode = new LinkedHashMap<>();
-        List<MenuNode> roots = new ArrayList<>();
-
-        for (Permission p : menus) {
-            MenuNode node = new MenuNode();
-            node.setId(p.getId());
-            node.setParentId(p.getParentId());
-            node.setName(p.getPermissionName());
-            node.setCode(p.getPermissionCode());
-            node.setPath(p.getPath());
-            node.setSortOrder(p.getSortOrder());
-            idToNode.put(p.getId(), node);
-        }
-
-        for (MenuNode node : idToNode.values()) {
-            Long parentId = node.getParentId() == null ? 0L : node.getParentId();
-            if (parentId == 0) {
-                roots.add(node);
-            } else {
-                MenuNode parent = idToNode.get(parentId);
-                if (parent != null) {
-                    parent.getChildren().add(node);
-                } else {
-                    roots.add(node);
-                }
-            }
-        }
-        return roots;
+        // 基于内存快照构建，无需查询数据库
+        return menuSnapshotService.current().fullTree();
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     @CacheEvict(cacheNames = {"menuTree", "visibleMenuTree"}, allEntries = true)
     public Permission updateMenu(Long id, MenuCreateRequest request) {
-        Permission exist = permissionMapper.selectById(id);
+        Long parentId = request.getParentId() == null ? 0L : request.getParentId();
+        // 锁定当前节点与新父节点后再校验，避免并发移动形成环或写入过期路径
+        Map<Long, Permission> locked = lockMenus(id, parentId);
+        Permission exist = locked.get(id);
         if (exist == null || exist.getPermissionType() == null || exist.getPermissionType() != 1) {
             throw new BusinessException(ResultCode.NOT_FOUND, "菜单不存在");
         }
@@ -131,12 +126,9 @@ public class PermissionServiceImpl implements PermissionService {
             }
         }
         // 父节点校验
-        Long parentId = request.getParentId() == null ? 0L : request.getParentId();
-        if (parentId != 0) {
-            Permission parent = permissionMapper.selectById(parentId);
-            if (parent == null || parent.getPermissionType() == null || parent.getPermissionType() != 1 || parent.getStatus() == 0) {
-                throw new BusinessException(ResultCode.PARAM_INVALID, "父菜单不存在或不可用");
-            }
+        Permission parent = parentId != 0 ? requireMenuParent(locked.get(parentId)) : null;
+        if (!Objects.equals(exist.getParentId(), parentId)) {
+            checkNotDescendant(exist, parent);
         }
 
         UpdateWrapper<Permission> uw = new UpdateWrapper<>();
@@ -148,6 +140,12 @@ public class PermissionServiceImpl implements PermissionService {
           .set("parent_id", parentId)
           .set(request.getSortOrder() != null, "sort_order", request.getSortOrder());
         permissionMapper.update(null, uw);
+        if (!Objects.equals(exist.getParentId(), parentId)) {
+            moveTreePath(exist, parent);
+        }
+        // 权限编码可能变化，使所有权限快照过期
+        authoritySnapshotService.onPermissionsChanged();
+        menuSnapshotService.onMenusChanged();
         return permissionMapper.selectById(id);
     }
 
@@ -165,84 +163,201 @@ public class PermissionServiceImpl implements PermissionService {
         UpdateWrapper<Permission> uw = new UpdateWrapper<>();
         uw.eq("id", id).set("deleted", 1);
         permissionMapper.update(null, uw);
+        authoritySnapshotService.onPermissionsChanged();
+        menuSnapshotService.onMenusChanged();
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @CacheEvict(cacheNames = {"menuTree", "visibleMenuTree"}, allEntries = true)
     public void batchUpdateSort(List<MenuSortItem> items) {
         if (items == null || items.isEmpty()) {
             return;
         }
+        // 同一菜单出现多次时以最后一次为准
+        Map<Long, Integer> requested = new LinkedHashMap<>();
         for (MenuSortItem item : items) {
-            UpdateWrapper<Permission> uw = new UpdateWrapper<>();
-            uw.eq("id", item.getId()).set("sort_order", item.getSortOrder());
-            permissionMapper.update(null, uw);
+            requested.put(item.getId(), item.getSortOrder());
         }
+        // 仅写入排序值实际变化的行：先批量读取当前值比对，再按批次用一条 CASE 语句更新
+        List<MenuSortItem> changed = new ArrayList<>();
+        Map<Long, Integer> changes = new HashMap<>();
+        for (List<Long> batch : BatchUtils.partition(requested.keySet())) {
+            for (Permission current : permissionMapper.listSortOrdersByIds(batch)) {
+                Integer sortOrder = requested.get(current.getId());
+                if (!Objects.equals(current.getSortOrder(), sortOrder)) {
+                    MenuSortItem item = new MenuSortItem();
+                    item.setId(current.getId());
+                    item.setSortOrder(sortOrder);
+                    changed.add(item);
+                    changes.put(item.getId(), sortOrder);
+                }
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        for (List<MenuSortItem> batch : BatchUtils.partition(changed)) {
+            permissionMapper.updateSortOrders(batch, now);
+        }
+        // 排序不影响权限与可见范围：内存修补快照，增量刷新菜单缓存
+        menuSnapshotService.onSortOrdersChanged(changes);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     @CacheEvict(cacheNames = {"menuTree", "visibleMenuTree"}, allEntries = true)
     public void deleteMenuCascade(Long id) {
-        // 递归标记删除
-        Deque<Long> stack = new ArrayDeque<>();
-        stack.push(id);
-        while (!stack.isEmpty()) {
-            Long current = stack.pop();
-            UpdateWrapper<Permission> uw = new UpdateWrapper<>();
-            uw.eq("id", current).set("deleted", 1);
-            permissionMapper.update(null, uw);
-
-            List<Permission> children = permissionMapper.selectList(new QueryWrapper<Permission>()
-                    .eq("parent_id", current)
-                    .eq("deleted", 0));
-            for (Permission child : children) {
-                stack.push(child.getId());
+        // 物化路径前缀一次解析整棵子树，再按批次标记删除（每 1000 个节点一条 UPDATE）
+        List<Long> subtreeIds = requireSubtreeIds(id);
+        for (List<Long> batch : BatchUtils.partition(subtreeIds)) {
+            permissionMapper.updateDeletedByIds(batch);
+        }
+        authoritySnapshotService.onPermissionsChanged();
+        menuSnapshotService.onMenusChanged();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    @CacheEvict(cacheNames = {"menuTree", "visibleMenuTree"}, allEntries = true)
+    public void disableMenuSubtree(Long id) {
+        List<Long> subtreeIds = requireSubtreeIds(id);
+        for (List<Long> batch : BatchUtils.partition(subtreeIds)) {
+            permissionMapper.updateStatusByIds(batch, 0);
+        }
+        authoritySnapshotService.onPermissionsChanged();
+        menuSnapshotService.onMenusChanged();
+    }
+
+    @Override
+    public List<MenuNode> exportMenuSubtree(Long id) {
+        List<Permission> subtree = permissionMapper.listSubtree(requireTreePath(id));
+        // 子树根的父节点不在集合内，构建时自然成为唯一根节点
+        return MenuSnapshot.build(subtree, Collections.emptyList()).fullTree();
+    }
+
+    @Override
+    public List<Permission> listMenuAncestors(Long id) {
+        List<Long> ancestorIds = MenuTreePath.ancestorIds(requireTreePath(id));
+        if (ancestorIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 祖先ID直接由路径解析，一次主键查询取回后按路径顺序（自根向下）排列
+        Map<Long, Permission> byId = new HashMap<>();
+        for (Permission p : permissionMapper.selectBatchIds(ancestorIds)) {
+            byId.put(p.getId(), p);
+        }
+        List<Permission> ancestors = new ArrayList<>(ancestorIds.size());
+        for (Long ancestorId : ancestorIds) {
+            Permission p = byId.get(ancestorId);
+            if (p != null) {
+                ancestors.add(p);
             }
         }
+        return ancestors;
+    }
+
+    private List<Long> requireSubtreeIds(Long id) {
+        return permissionMapper.listSubtreeIds(requireTreePath(id));
+    }
+
+    private String requireTreePath(Long id) {
+        Permission menu = permissionMapper.selectById(id);
+        if (menu == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "菜单不存在");
+        }
+        return ensureTreePath(menu).getTreePath();
+    }
+
+    /**
+     * 历史数据未回填物化路径时整体重建一次（空路径作为前缀会匹配全表，必须避免）
+     */
+    private Permission ensureTreePath(Permission menu) {
+        if (MenuTreePath.isPresent(menu.getTreePath())) {
+            return menu;
+        }
+        permissionMapper.rebuildTreePaths();
+        Permission reloaded = permissionMapper.selectById(menu.getId());
+        if (reloaded == null || !MenuTreePath.isPresent(reloaded.getTreePath())) {
+            throw new BusinessException(ResultCode.DATA_INVALID, "菜单层级数据异常");
+        }
+        return reloaded;
+    }
+
+    /**
+     * 按 id 顺序锁定参与结构变更的菜单行（在校验之前执行），校验与路径计算均基于锁定后读取的最新数据。
+     * 子树路径改写会锁定整棵子树的行，因此在被移动子树内新建、挂靠节点的并发变更同样与移动串行执行
+     *
+     * @param ids 菜单ID（忽略 null 与根节点 0）
+     * @return 菜单ID -> 锁定的行（不存在或已删除的菜单不在结果中）
+     */
+    private Map<Long, Permission> lockMenus(Long... ids) {
+        Set<Long> sorted = new TreeSet<>();
+        for (Long id : ids) {
+            if (id != null && id != 0) {
+                sorted.add(id);
+            }
+        }
+        Map<Long, Permission> locked = new HashMap<>();
+        if (!sorted.isEmpty()) {
+            for (Permission menu : permissionMapper.listForUpdate(sorted)) {
+                locked.put(menu.getId(), menu);
+            }
+        }
+        return locked;
+    }
+
+    private Permission requireMenuParent(Permission parent) {
+        if (parent == null || parent.getPermissionType() == null || parent.getPermissionType() != 1 || parent.getStatus() == 0) {
+            throw new BusinessException(ResultCode.PARAM_INVALID, "父菜单不存在或不可用");
+        }
+        return ensureTreePath(parent);
+    }
+
+    /**
+     * 循环依赖校验：新父节点的路径以当前节点路径为前缀即为其子孙，无需遍历子树
+     */
+    private void checkNotDescendant(Permission current, Permission newParent) {
+        if (newParent != null
+                && MenuTreePath.isSelfOrDescendant(newParent.getTreePath(), ensureTreePath(current).getTreePath())) {
+            throw new BusinessException(ResultCode.PARAM_INVALID, "不能将节点移动到其子孙节点下");
+        }
+    }
+
+    /**
+     * 子树整体改挂到新父节点下：一条 UPDATE 改写所有子孙路径的前缀
+     */
+    private void moveTreePath(Permission current, Permission newParent) {
+        String oldPath = ensureTreePath(current).getTreePath();
+        String newPath = MenuTreePath.childOf(newParent == null ? null : newParent.getTreePath(), current.getId());
+        if (!oldPath.equals(newPath)) {
+            permissionMapper.updateTreePathPrefix(oldPath, newPath);
+        }
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     @CacheEvict(cacheNames = {"menuTree", "visibleMenuTree"}, allEntries = true)
     public void moveMenu(com.enterprise.integrated.dto.MenuMoveRequest request) {
-        Permission current = permissionMapper.selectById(request.getId());
+        Long newParentId = request.getNewParentId() == null ? 0L : request.getNewParentId();
+        // 锁定被移动节点与新父节点后再校验：两个相向的移动（A 到 B 下、B 到 A 下）串行执行，后者按最新路径判定为环
+        Map<Long, Permission> locked = lockMenus(request.getId(), newParentId);
+        Permission current = locked.get(request.getId());
         if (current == null || current.getPermissionType() == null || current.getPermissionType() != 1) {
             throw new BusinessException(ResultCode.NOT_FOUND, "菜单不存在");
         }
-        Long newParentId = request.getNewParentId() == null ? 0L : request.getNewParentId();
         if (Objects.equals(current.getId(), newParentId)) {
             throw new BusinessException(ResultCode.PARAM_INVALID, "父节点不能是自身");
         }
-        if (newParentId != 0) {
-            Permission parent = permissionMapper.selectById(newParentId);
-            if (parent == null || parent.getPermissionType() == null || parent.getPermissionType() != 1 || parent.getStatus() == 0) {
-                throw new BusinessException(ResultCode.PARAM_INVALID, "父菜单不存在或不可用");
-            }
-        }
-        // 循环依赖校验：新父节点不能是当前节点的子孙
-        if (newParentId != 0) {
-            Deque<Long> stack = new ArrayDeque<>();
-            stack.push(current.getId());
-            while (!stack.isEmpty()) {
-                Long c = stack.pop();
-                if (Objects.equals(c, newParentId)) {
-                    throw new BusinessException(ResultCode.PARAM_INVALID, "不能将节点移动到其子孙节点下");
-                }
-                List<Permission> children = permissionMapper.selectList(new QueryWrapper<Permission>()
-                        .eq("parent_id", c)
-                        .eq("deleted", 0));
-                for (Permission child : children) {
-                    stack.push(child.getId());
-                }
-            }
-        }
+        Permission parent = newParentId != 0 ? requireMenuParent(locked.get(newParentId)) : null;
+        checkNotDescendant(current, parent);
         UpdateWrapper<Permission> uw = new UpdateWrapper<>();
         uw.eq("id", current.getId())
           .set("parent_id", newParentId)
           .set("sort_order", request.getNewSortOrder());
         permissionMapper.update(null, uw);
+        moveTreePath(current, parent);
+        menuSnapshotService.onMenusChanged();
     }
 
     @Override
@@ -253,7 +368,7 @@ public class PermissionServiceImpl implements PermissionService {
     @Override
     @Cacheable(
         cacheNames = "visibleMenuTree",
-        key = "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication()?.getPrincipal()?.getUserId() + ':' + #menuOnly + ':' + #pruneEmpty",
+        key = "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication()?.getPrincipal()?.getAuthoritySnapshot()?.getRoleSignature() + ':' + #menuOnly + ':' + #pruneEmpty",
         unless = "#result == null || #result.isEmpty()")
     public List<MenuNode> getVisibleMenuTreeForCurrentUser(boolean menuOnly, boolean pruneEmpty) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -261,74 +376,14 @@ public class PermissionServiceImpl implements PermissionService {
             return Collections.emptyList();
         }
         UserDetailsServiceImpl.CustomUserDetails user = (UserDetailsServiceImpl.CustomUserDetails) auth.getPrincipal();
-        // 用户拥有的菜单（当前实现仅菜单类型）
-        List<Permission> userMenus = permissionMapper.findMenusByUserId(user.getUserId());
-        if (userMenus.isEmpty()) {
+        // 用户角色来自权限快照，可见菜单 = 角色菜单位图并集 + 祖先节点（当前实现仅菜单类型）
+        // 缓存按角色集合签名共享，登记签名以便角色变更时定向失效
+        AuthoritySnapshot authority = user.getAuthoritySnapshot();
+        menuCacheService.registerRoleSignature(authority.getRoleIds(), authority.getRoleSignature());
+        List<MenuNode> roots = menuSnapshotService.current().visibleTree(authority.getRoleIds());
+        if (roots.isEmpty()) {
             return Collections.emptyList();
         }
-
-        // 查询所有菜单，用于补齐祖先节点
-        List<Permission> allMenus = permissionMapper.selectList(new QueryWrapper<Permission>()
-                .eq("permission_type", 1)
-                .eq("deleted", 0));
-        Map<Long, Permission> allMap = new HashMap<>();
-        for (Permission p : allMenus) {
-            allMap.put(p.getId(), p);
-        }
-
-        // 计算应包含的ID集合 = 用户直接拥有 + 其所有祖先
-        Set<Long> includeIds = new LinkedHashSet<>();
-        for (Permission p : userMenus) {
-            Long cur = p.getId();
-            while (cur != null && cur != 0 && includeIds.add(cur)) {
-                Permission parent = allMap.get(cur);
-                if (parent == null) break;
-                cur = parent.getParentId();
-                if (cur != null && cur == 0) {
-                    includeIds.add(parent.getId());
-                }
-            }
-            // 补齐当前节点的直接父级（处理父级为0或null场景）
-            if (p.getParentId() != null) {
-                includeIds.add(p.getParentId());
-            }
-        }
-
-        // 按 parentId/sort/id 排序后构建树
-        List<Permission> menus = new ArrayList<>();
-        for (Long id : includeIds) {
-            Permission pm = allMap.get(id);
-            if (pm != null) menus.add(pm);
-        }
-        menus.sort(Comparator.comparing(Permission::getParentId, Comparator.nullsFirst(Long::compareTo))
-                .thenComparing(p -> Optional.ofNullable(p.getSortOrder()).orElse(0))
-                .thenComparing(Permission::getId));
-
-        Map<Long, MenuNode> idToNode = new LinkedHashMap<>();
-        List<MenuNode> roots = new ArrayList<>();
-        for (Permission p : menus) {
-            MenuNode node = new MenuNode();
-            node.setId(p.getId());
-            node.setParentId(p.getParentId());
-            node.setName(p.getPermissionName());
-            node.setCode(p.getPermissionCode());
-            node.setPath(p.getPath());
-            node.setSortOrder(p.getSortOrder());
-            idToNode.put(p.getId(), node);
-        }
-        for (MenuNode node : idToNode.values()) {
-            Long parentId = node.getParentId() == null ? 0L : node.getParentId();
-            if (parentId == 0) {
-                roots.add(node);
-            } else {
-                MenuNode parent = idToNode.get(parentId);
-                if (parent != null) {
-                    parent.getChildren().add(node);
-                } else {
-                    roots.add(node);
-                }
-            }
-        }
         if (pruneEmpty) {
             roots = pruneEmptyNodes(roots);
         }
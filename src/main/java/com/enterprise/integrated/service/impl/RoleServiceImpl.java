@@ -8,10 +8,13 @@ import com.enterprise.integrated.mapper.PermissionMapper;
 import com.enterprise.integrated.entity.User;
 import com.enterprise.integrated.entity.Role;
 import com.enterprise.integrated.entity.Permission;
+import com.enterprise.integrated.security.AuthoritySnapshotService;
+import com.enterprise.integrated.service.EffectivePermissionService;
 import com.enterprise.integrated.service.MenuCacheFacade;
 import com.enterprise.integrated.service.RoleService;
 import com.enterprise.integrated.common.exception.BusinessException;
 import com.enterprise.integrated.common.result.ResultCode;
+import com.enterprise.integrated.utils.BatchUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,24 +27,31 @@ public class RoleServiceImpl implements RoleService {
     private final UserMapper userMapper;
     private final RoleMapper roleMapper;
     private final PermissionMapper permissionMapper;
+    private final AuthoritySnapshotService authoritySnapshotService;
+    private final EffectivePermissionService effectivePermissionService;
 
     public RoleServiceImpl(UserRoleMapper userRoleMapper,
                            RolePermissionMapper rolePermissionMapper,
                            MenuCacheFacade menuCacheFacade,
                            UserMapper userMapper,
                            RoleMapper roleMapper,
-                           PermissionMapper permissionMapper) {
+                           PermissionMapper permissionMapper,
+                           AuthoritySnapshotService authoritySnapshotService,
+                           EffectivePermissionService effectivePermissionService) {
         this.userRoleMapper = userRoleMapper;
         this.rolePermissionMapper = rolePermissionMapper;
         this.menuCacheFacade = menuCacheFacade;
         this.userMapper = userMapper;
         this.roleMapper = roleMapper;
         this.permissionMapper = permissionMapper;
+        this.authoritySnapshotService = authoritySnapshotService;
+        this.effectivePermissionService = effectivePermissionService;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void assignRoleToUser(Long userId, Long roleId) {
+        lockRole(roleId);
         // 基础存在性与可用性校验
         User user = userMapper.selectById(userId);
         if (user == null || user.getDeleted() != 0 || user.getStatus() == null || user.getStatus() == 0) {
@@ -59,25 +69,31 @@ public class RoleServiceImpl implements RoleService {
         if (rows <= 0) {
             throw new BusinessException(ResultCode.OPERATION_FAILED, "分配角色失败");
         }
-        menuCacheFacade.onUserRolesChanged(userId);
+        effectivePermissionService.onRoleUsersAdded(roleId, java.util.List.of(userId));
+        // 权限快照失效后用户获得新的角色签名，可见菜单树无需单独失效
+        authoritySnapshotService.onUserChanged(userId);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void removeRoleFromUser(Long userId, Long roleId) {
+        lockRole(roleId);
         if (userRoleMapper.countUserRole(userId, roleId) == 0) {
             return; // 已无该关系，视为成功
         }
+        effectivePermissionService.onRoleUsersRemoving(roleId, java.util.List.of(userId));
         int rows = userRoleMapper.removeUserRole(userId, roleId);
         if (rows <= 0) {
             throw new BusinessException(ResultCode.OPERATION_FAILED, "移除角色失败");
         }
-        menuCacheFacade.onUserRolesChanged(userId);
+        // 权限快照失效后用户获得新的角色签名，可见菜单树无需单独失效
+        authoritySnapshotService.onUserChanged(userId);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void addPermissionToRole(Long roleId, Long permissionId) {
+        lockRole(roleId);
         // 基础存在性与可用性校验
         Role role = roleMapper.selectById(roleId);
         if (role == null || role.getDeleted() != 0 || role.getStatus() == null || role.getStatus() == 0) {
@@ -94,20 +110,25 @@ public class RoleServiceImpl implements RoleService {
         if (rows <= 0) {
             throw new BusinessException(ResultCode.OPERATION_FAILED, "绑定权限失败");
         }
+        effectivePermissionService.onRolePermissionsAdded(roleId, java.util.List.of(permissionId));
         menuCacheFacade.onRolePermissionsChanged(roleId);
+        authoritySnapshotService.onPermissionsChanged();
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void removePermissionFromRole(Long roleId, Long permissionId) {
+        lockRole(roleId);
         if (rolePermissionMapper.countRolePermission(roleId, permissionId) == 0) {
             return; // 已无该关系，视为成功
         }
+        effectivePermissionService.onRolePermissionsRemoving(roleId, java.util.List.of(permissionId));
         int rows = rolePermissionMapper.removeRolePermission(roleId, permissionId);
         if (rows <= 0) {
             throw new BusinessException(ResultCode.OPERATION_FAILED, "移除权限失败");
         }
         menuCacheFacade.onRolePermissionsChanged(roleId);
+        authoritySnapshotService.onPermissionsChanged();
     }
 
     @Override
@@ -116,27 +137,26 @@ public class RoleServiceImpl implements RoleService {
         com.enterprise.integrated.dto.BatchOperationResult result = new com.enterprise.integrated.dto.BatchOperationResult();
         if (userIds == null || userIds.isEmpty()) return result;
         result.setTotalCount(userIds.size());
+        lockRole(roleId);
         // 角色可用性校验
         Role role = roleMapper.selectById(roleId);
         if (role == null || role.getDeleted() != 0 || role.getStatus() == null || role.getStatus() == 0) {
             throw new BusinessException(ResultCode.DATA_NOT_FOUND, "角色不存在或已禁用");
         }
-        for (Long userId : userIds) {
-            User u = userMapper.selectById(userId);
-            if (u == null || u.getDeleted() != 0 || u.getStatus() == null || u.getStatus() == 0) {
-                result.getInvalidIds().add(userId);
-                result.setSkippedCount(result.getSkippedCount() + 1);
-                continue;
-            }
-            if (userRoleMapper.countUserRole(userId, roleId) == 0) {
-                userRoleMapper.addUserRole(userId, roleId);
-                menuCacheFacade.onUserRolesChanged(userId);
-                result.setSuccessCount(result.getSuccessCount() + 1);
-            } else {
-                result.getDuplicatedIds().add(userId);
-                result.setSkippedCount(result.getSkippedCount() + 1);
-            }
+        // 一次 IN 查询校验用户可用性，一次读取已有关系，按批次多行插入
+        java.util.List<Long> distinctIds = distinctNonNull(userIds);
+        java.util.Set<Long> available = new java.util.HashSet<>();
+        java.util.Set<Long> existing = new java.util.HashSet<>();
+        for (java.util.List<Long> batch : BatchUtils.partition(distinctIds)) {
+            available.addAll(userMapper.listAvailableIds(batch));
+            existing.addAll(userRoleMapper.listUserIdsByRoleId(roleId, batch));
         }
+        java.util.List<Long> changedUserIds = collectAdded(userIds, available, existing, result);
+        for (java.util.List<Long> batch : BatchUtils.partition(changedUserIds)) {
+            userRoleMapper.addRoleUsersBatch(roleId, batch);
+        }
+        effectivePermissionService.onRoleUsersAdded(roleId, changedUserIds);
+        authoritySnapshotService.onUsersChanged(changedUserIds);
         return result;
     }
 
@@ -146,16 +166,17 @@ public class RoleServiceImpl implements RoleService {
         com.enterprise.integrated.dto.BatchOperationResult result = new com.enterprise.integrated.dto.BatchOperationResult();
         if (userIds == null || userIds.isEmpty()) return result;
         result.setTotalCount(userIds.size());
-        for (Long userId : userIds) {
-            if (userRoleMapper.countUserRole(userId, roleId) > 0) {
-                userRoleMapper.removeUserRole(userId, roleId);
-                menuCacheFacade.onUserRolesChanged(userId);
-                result.setSuccessCount(result.getSuccessCount() + 1);
-            } else {
-                result.getDuplicatedIds().add(userId);
-                result.setSkippedCount(result.getSkippedCount() + 1);
-            }
+        lockRole(roleId);
+        java.util.Set<Long> existing = new java.util.HashSet<>();
+        for (java.util.List<Long> batch : BatchUtils.partition(distinctNonNull(userIds))) {
+            existing.addAll(userRoleMapper.listUserIdsByRoleId(roleId, batch));
         }
+        java.util.List<Long> changedUserIds = collectRemoved(userIds, existing, result);
+        effectivePermissionService.onRoleUsersRemoving(roleId, changedUserIds);
+        for (java.util.List<Long> batch : BatchUtils.partition(changedUserIds)) {
+            userRoleMapper.removeRoleUsersBatch(roleId, batch);
+        }
+        authoritySnapshotService.onUsersChanged(changedUserIds);
         return result;
     }
 
@@ -165,30 +186,27 @@ public class RoleServiceImpl implements RoleService {
         com.enterprise.integrated.dto.BatchOperationResult result = new com.enterprise.integrated.dto.BatchOperationResult();
         if (permissionIds == null || permissionIds.isEmpty()) return result;
         result.setTotalCount(permissionIds.size());
+        lockRole(roleId);
         // 角色可用性校验
         Role role = roleMapper.selectById(roleId);
         if (role == null || role.getDeleted() != 0 || role.getStatus() == null || role.getStatus() == 0) {
             throw new BusinessException(ResultCode.DATA_NOT_FOUND, "角色不存在或已禁用");
         }
-        boolean changed = false;
-        for (Long pid : permissionIds) {
-            Permission p = permissionMapper.selectById(pid);
-            if (p == null || p.getDeleted() != 0 || p.getStatus() == null || p.getStatus() == 0) {
-                result.getInvalidIds().add(pid);
-                result.setSkippedCount(result.getSkippedCount() + 1);
-                continue;
-            }
-            if (rolePermissionMapper.countRolePermission(roleId, pid) == 0) {
-                rolePermissionMapper.addRolePermission(roleId, pid);
-                changed = true;
-                result.setSuccessCount(result.getSuccessCount() + 1);
-            } else {
-                result.getDuplicatedIds().add(pid);
-                result.setSkippedCount(result.getSkippedCount() + 1);
-            }
+        java.util.List<Long> distinctIds = distinctNonNull(permissionIds);
+        java.util.Set<Long> available = new java.util.HashSet<>();
+        java.util.Set<Long> existing = new java.util.HashSet<>();
+        for (java.util.List<Long> batch : BatchUtils.partition(distinctIds)) {
+            available.addAll(permissionMapper.listAvailableIds(batch));
+            existing.addAll(rolePermissionMapper.listPermissionIdsByRoleId(roleId, batch));
+        }
+        java.util.List<Long> added = collectAdded(permissionIds, available, existing, result);
+        for (java.util.List<Long> batch : BatchUtils.partition(added)) {
+            rolePermissionMapper.addRolePermissionsBatch(roleId, batch);
         }
-        if (changed) {
+        effectivePermissionService.onRolePermissionsAdded(roleId, added);
+        if (!added.isEmpty()) {
             menuCacheFacade.onRolePermissionsChanged(roleId);
+            authoritySnapshotService.onPermissionsChanged();
         }
         return result;
     }
@@ -199,22 +217,80 @@ public class RoleServiceImpl implements RoleService {
         com.enterprise.integrated.dto.BatchOperationResult result = new com.enterprise.integrated.dto.BatchOperationResult();
         if (permissionIds == null || permissionIds.isEmpty()) return result;
         result.setTotalCount(permissionIds.size());
-        boolean changed = false;
-        for (Long pid : permissionIds) {
-            if (rolePermissionMapper.countRolePermission(roleId, pid) > 0) {
-                rolePermissionMapper.removeRolePermission(roleId, pid);
-                changed = true;
+        lockRole(roleId);
+        java.util.Set<Long> existing = new java.util.HashSet<>();
+        for (java.util.List<Long> batch : BatchUtils.partition(distinctNonNull(permissionIds))) {
+            existing.addAll(rolePermissionMapper.listPermissionIdsByRoleId(roleId, batch));
+        }
+        java.util.List<Long> removed = collectRemoved(permissionIds, existing, result);
+        effectivePermissionService.onRolePermissionsRemoving(roleId, removed);
+        for (java.util.List<Long> batch : BatchUtils.partition(removed)) {
+            rolePermissionMapper.removeRolePermissionsBatch(roleId, batch);
+        }
+        if (!removed.isEmpty()) {
+            menuCacheFacade.onRolePermissionsChanged(roleId);
+            authoritySnapshotService.onPermissionsChanged();
+        }
+        return result;
+    }
+
+    /**
+     * 锁定角色行：须为事务内的首条语句，之后的读取均基于已提交的最新关联，
+     * 同一角色的关联变更与用户有效权限的增量维护串行执行
+     */
+    private void lockRole(Long roleId) {
+        roleMapper.findIdForUpdate(roleId);
+    }
+
+    private static java.util.List<Long> distinctNonNull(java.util.List<Long> ids) {
+        java.util.Set<Long> distinct = new java.util.LinkedHashSet<>(ids);
+        distinct.remove(null);
+        return new java.util.ArrayList<>(distinct);
+    }
+
+    /**
+     * 按输入顺序逐个判定（与逐条处理时的结果一致）：不可用 -> 无效；已存在（含输入中重复的ID）-> 重复；否则新增
+     *
+     * @param existing 已有关系，会被修改
+     * @return 需要新增的ID（去重，保持输入顺序）
+     */
+    private static java.util.List<Long> collectAdded(java.util.List<Long> ids, java.util.Set<Long> available,
+                                                     java.util.Set<Long> existing,
+                                                     com.enterprise.integrated.dto.BatchOperationResult result) {
+        java.util.List<Long> added = new java.util.ArrayList<>();
+        for (Long id : ids) {
+            if (!available.contains(id)) {
+                result.getInvalidIds().add(id);
+                result.setSkippedCount(result.getSkippedCount() + 1);
+            } else if (existing.add(id)) {
+                added.add(id);
                 result.setSuccessCount(result.getSuccessCount() + 1);
             } else {
-                result.getDuplicatedIds().add(pid);
+                result.getDuplicatedIds().add(id);
                 result.setSkippedCount(result.getSkippedCount() + 1);
             }
         }
-        if (changed) {
-            menuCacheFacade.onRolePermissionsChanged(roleId);
+        return added;
+    }
+
+    /**
+     * 按输入顺序逐个判定：关系存在 -> 移除；不存在（含输入中重复的ID）-> 重复
+     *
+     * @param existing 已有关系，会被修改
+     * @return 需要删除的ID（去重，保持输入顺序）
+     */
+    private static java.util.List<Long> collectRemoved(java.util.List<Long> ids, java.util.Set<Long> existing,
+                                                       com.enterprise.integrated.dto.BatchOperationResult result) {
+        java.util.List<Long> removed = new java.util.ArrayList<>();
+        for (Long id : ids) {
+            if (existing.remove(id)) {
+                removed.add(id);
+                result.setSuccessCount(result.getSuccessCount() + 1);
+            } else {
+                result.getDuplicatedIds().add(id);
+                result.setSkippedCount(result.getSkippedCount() + 1);
+            }
         }
-        return result;
+        return removed;
     }
 }
-
-
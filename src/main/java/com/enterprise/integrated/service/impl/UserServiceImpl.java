@@ -1,6 +1,7 @@
 package com.enterprise.integrated.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
@@ -9,13 +10,18 @@ import com.enterprise.integrated.common.result.ResultCode;
 import com.enterprise.integrated.dto.UserDTO;
 import com.enterprise.integrated.entity.User;
 import com.enterprise.integrated.mapper.UserMapper;
+import com.enterprise.integrated.security.PasswordHashingService;
+import com.enterprise.integrated.security.TokenSessionService;
+import com.enterprise.integrated.security.UserStatusCache;
+import com.enterprise.integrated.utils.TransactionUtils;
 import com.enterprise.integrated.service.UserService;
 import org.springframework.beans.BeanUtils;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.Serializable;
+
 /**
  * 用户服务实现类
  * 
@@ -26,10 +32,16 @@ import org.springframework.util.StringUtils;
 @Transactional(rollbackFor = Exception.class)
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService {
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UserStatusCache userStatusCache;
+    private final TokenSessionService tokenSessionService;
 
-    public UserServiceImpl(PasswordEncoder passwordEncoder) {
-        this.passwordEncoder = passwordEncoder;
+    public UserServiceImpl(PasswordHashingService passwordHashingService,
+                           UserStatusCache userStatusCache,
+                           TokenSessionService tokenSessionService) {
+        this.passwordHashingService = passwordHashingService;
+        this.userStatusCache = userStatusCache;
+        this.tokenSessionService = tokenSessionService;
     }
 
     @Override
@@ -69,7 +81,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         
         // 设置默认密码并加密
         String defaultPassword = "123456";
-        user.setPassword(passwordEncoder.encode(defaultPassword));
+        user.setPassword(passwordHashingService.encode(defaultPassword));
         
         // 设置默认状态为启用
         if (user.getStatus() == null) {
@@ -115,6 +127,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (!updateById(existingUser)) {
             throw new BusinessException(ResultCode.OPERATION_FAILED, "更新用户失败");
         }
+        userStatusCache.onUserChanged(id);
 
         return existingUser;
     }
@@ -138,7 +151,22 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         }
 
         user.setStatus(status);
-        return updateById(user);
+        boolean updated = updateById(user);
+        userStatusCache.onUserChanged(id);
+        if (updated && Integer.valueOf(0).equals(status)) {
+            // 禁用用户时吊销其所有令牌
+            TransactionUtils.afterCommit(() -> tokenSessionService.revokeAll(id));
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        if (removed) {
+            userStatusCache.onUserChanged(Long.valueOf(id.toString()));
+        }
+        return removed;
     }
 
     @Override
@@ -148,8 +176,21 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             throw new BusinessException(ResultCode.DATA_NOT_FOUND, "用户不存在");
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        return updateById(user);
+        user.setPassword(passwordHashingService.encode(newPassword));
+        boolean updated = updateById(user);
+        if (updated) {
+            // 重置密码后吊销该用户所有已签发令牌
+            TransactionUtils.afterCommit(() -> tokenSessionService.revokeAll(id));
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean upgradePasswordHash(Long id, String oldHash, String newHash) {
+        return update(new LambdaUpdateWrapper<User>()
+                .eq(User::getId, id)
+                .eq(User::getPassword, oldHash)
+                .set(User::getPassword, newHash));
     }
 
     @Override
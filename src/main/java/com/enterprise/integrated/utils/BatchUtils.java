@@ -0,0 +1,50 @@
+package com.enterprise.integrated.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量操作工具类
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public final class BatchUtils {
+
+    /** 单条 SQL 的默认批次上限（见 docs/sql-mapper-guidelines.md） */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private BatchUtils() {
+    }
+
+    /**
+     * 按默认批次大小切分
+     */
+    public static <T> List<List<T>> partition(Collection<T> items) {
+        return partition(items, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 将集合切分为不超过 {@code size} 的连续子列表
+     *
+     * @param items 元素集合
+     * @param size 批次大小
+     * @return 子列表（只读视图）
+     */
+    public static <T> List<List<T>> partition(Collection<T> items, int size) {
+        if (items == null || items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        List<T> list = items instanceof List ? (List<T>) items : new ArrayList<>(items);
+        List<List<T>> batches = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size) {
+            batches.add(Collections.unmodifiableList(list.subList(from, Math.min(from + size, list.size()))));
+        }
+        return batches;
+    }
+}
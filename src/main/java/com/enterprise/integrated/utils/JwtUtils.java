@@ -1,14 +1,20 @@
 package com.enterprise.integrated.utils;
 
+import com.enterprise.integrated.security.VerifiedToken;
+import com.enterprise.integrated.security.VerifiedTokenCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * JWT工具类
@@ -28,8 +34,25 @@ public class JwtUtils {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    /**
+     * 签名密钥与解析器均为不可变且线程安全，启动时构建一次后复用
+     */
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    public JwtUtils(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     /**
@@ -40,10 +63,27 @@ public class JwtUtils {
      * @return JWT令牌
      */
     public String generateToken(Long userId, String username) {
+        return generateToken(userId, username, 0L, null);
+    }
+
+    /**
+     * 生成访问令牌（携带令牌代数与设备标识）
+     * 
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param epoch 用户当前令牌代数
+     * @param deviceId 设备标识
+     * @return JWT令牌
+     */
+    public String generateToken(Long userId, String username, long epoch, String deviceId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
         claims.put("type", "access");
+        claims.put(VerifiedToken.CLAIM_EPOCH, epoch);
+        if (deviceId != null) {
+            claims.put(VerifiedToken.CLAIM_DEVICE, deviceId);
+        }
         
         return createToken(claims, username, expiration);
     }
@@ -56,10 +96,27 @@ public class JwtUtils {
      * @return JWT刷新令牌
      */
     public String generateRefreshToken(Long userId, String username) {
+        return generateRefreshToken(userId, username, 0L, null);
+    }
+
+    /**
+     * 生成刷新令牌（携带令牌代数与设备标识）
+     * 
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param epoch 用户当前令牌代数
+     * @param deviceId 设备标识
+     * @return JWT刷新令牌
+     */
+    public String generateRefreshToken(Long userId, String username, long epoch, String deviceId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
         claims.put("type", "refresh");
+        claims.put(VerifiedToken.CLAIM_EPOCH, epoch);
+        if (deviceId != null) {
+            claims.put(VerifiedToken.CLAIM_DEVICE, deviceId);
+        }
         
         return createToken(claims, username, refreshExpiration);
     }
@@ -78,10 +135,11 @@ public class JwtUtils {
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -123,11 +181,39 @@ public class JwtUtils {
      * @return 声明
      */
     private Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * 解析并验签令牌（每个请求仅需调用一次），重复令牌直接命中本地缓存
+     *
+     * @param token JWT令牌
+     * @return 已验签令牌，无效时返回null
+     */
+    public VerifiedToken parseToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            VerifiedToken verified = VerifiedToken.of(token, getClaimsFromToken(token));
+            verifiedTokenCache.put(verified);
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 使令牌的本地验签缓存失效
+     *
+     * @param token JWT令牌
+     */
+    public void evictVerifiedToken(String token) {
+        verifiedTokenCache.invalidate(token);
     }
 
     /**
@@ -166,15 +252,7 @@ public class JwtUtils {
      * @return 是否有效
      */
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseToken(token) != null;
     }
 
     /**
@@ -0,0 +1,71 @@
+package com.enterprise.integrated.utils;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 发布/订阅订阅器（用于集群内本地缓存的失效广播）
+ * <p>
+ * 监听容器不作为生命周期 Bean 暴露，而是在应用就绪后启动、失败时定期重试，
+ * 因此 Redis 暂不可用时不会阻塞应用启动。容器运行后由其自身负责断线重连。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class RedisMessageSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisMessageSubscriber.class);
+
+    private final RedisMessageListenerContainer container;
+
+    public RedisMessageSubscriber(RedisConnectionFactory connectionFactory) {
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(connectionFactory);
+        this.container.afterPropertiesSet();
+    }
+
+    /**
+     * 订阅主题（可在容器启动前调用）
+     *
+     * @param listener 监听器
+     * @param topic 主题
+     */
+    public void subscribe(MessageListener listener, Topic topic) {
+        container.addMessageListener(listener, topic);
+    }
+
+    /**
+     * 确保监听容器已启动（先于其他就绪事件监听器执行，使本地缓存在全量加载前已开始接收广播）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Scheduled(initialDelay = 30000, fixedDelay = 30000)
+    public void ensureStarted() {
+        if (container.isRunning()) {
+            return;
+        }
+        try {
+            container.start();
+            log.info("Redis 发布/订阅监听容器已启动");
+        } catch (Exception e) {
+            log.warn("Redis 发布/订阅监听容器启动失败，稍后重试: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        container.destroy();
+    }
+}
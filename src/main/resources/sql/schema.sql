@@ -62,6 +62,7 @@ CREATE TABLE IF NOT EXISTS `sys_user_role` (
 CREATE TABLE IF NOT EXISTS `sys_permission` (
     `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
     `parent_id` BIGINT DEFAULT 0 COMMENT '父权限ID',
+    `tree_path` VARCHAR(760) NOT NULL DEFAULT '' COMMENT '物化路径(/祖先ID/.../自身ID/)',
     `permission_name` VARCHAR(50) NOT NULL COMMENT '权限名称',
     `permission_code` VARCHAR(100) NOT NULL COMMENT '权限编码',
     `permission_type` TINYINT NOT NULL COMMENT '权限类型(1:菜单,2:按钮,3:接口)',
@@ -79,6 +80,7 @@ CREATE TABLE IF NOT EXISTS `sys_permission` (
     PRIMARY KEY (`id`),
     UNIQUE KEY `uk_permission_code` (`permission_code`),
     KEY `idx_parent_id` (`parent_id`),
+    KEY `idx_tree_path` (`tree_path`),
     KEY `idx_type` (`permission_type`),
     KEY `idx_status` (`status`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='权限表';
@@ -96,6 +98,15 @@ CREATE TABLE IF NOT EXISTS `sys_role_permission` (
     KEY `idx_permission_id` (`permission_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='角色权限关联表';
 
+-- 用户有效权限表（由用户角色、角色权限关联派生，随关联变更增量维护，可由对账任务重建）
+CREATE TABLE IF NOT EXISTS `sys_user_permission` (
+    `user_id` BIGINT NOT NULL COMMENT '用户ID',
+    `permission_id` BIGINT NOT NULL COMMENT '权限ID',
+    `grant_count` INT NOT NULL DEFAULT 1 COMMENT '授予该权限的角色数',
+    PRIMARY KEY (`user_id`, `permission_id`),
+    KEY `idx_permission_id` (`permission_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户有效权限表';
+
 -- 系统配置表
 CREATE TABLE IF NOT EXISTS `sys_config` (
     `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
@@ -138,10 +149,34 @@ CREATE TABLE IF NOT EXISTS `sys_operation_log` (
     KEY `idx_status` (`status`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志表';
 
+-- 批量任务表
+CREATE TABLE IF NOT EXISTS `sys_bulk_job` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `job_type` VARCHAR(32) NOT NULL COMMENT '任务类型',
+    `target_id` BIGINT NOT NULL COMMENT '目标ID(角色ID)',
+    `payload` MEDIUMTEXT NOT NULL COMMENT '待处理ID列表(JSON)',
+    `total_count` INT NOT NULL DEFAULT 0 COMMENT '总数',
+    `processed_count` INT NOT NULL DEFAULT 0 COMMENT '已处理数(断点)',
+    `chunk_size` INT NOT NULL DEFAULT 1000 COMMENT '每批数量',
+    `status` VARCHAR(16) NOT NULL COMMENT '状态(PENDING,RUNNING,COMPLETED,FAILED)',
+    `result` MEDIUMTEXT COMMENT '累计处理结果(JSON)',
+    `error_message` VARCHAR(500) DEFAULT NULL COMMENT '失败原因',
+    `owner` VARCHAR(64) DEFAULT NULL COMMENT '执行节点',
+    `heartbeat_time` DATETIME DEFAULT NULL COMMENT '执行节点心跳时间',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    `create_by` BIGINT DEFAULT NULL COMMENT '创建人ID',
+    `update_by` BIGINT DEFAULT NULL COMMENT '更新人ID',
+    `deleted` TINYINT DEFAULT 0 COMMENT '逻辑删除标识(0:未删除,1:已删除)',
+    `version` INT DEFAULT 1 COMMENT '版本号(乐观锁)',
+    PRIMARY KEY (`id`),
+    KEY `idx_status_heartbeat` (`status`, `heartbeat_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='批量任务表';
+
 -- 初始化数据
 -- 插入默认管理员用户 (密码: admin123)
 INSERT IGNORE INTO `sys_user` (`id`, `username`, `password`, `nickname`, `email`, `status`, `create_by`, `update_by`) 
-VALUES (1, 'admin', '$2a$10$7JB720yubVSOfvVWbazBuOWShWvheWjxVYaB4ndaWfrhcJY4CyZGy', '系统管理员', 'admin@enterprise.com', 1, 1, 1);
+VALUES (1, 'admin', '$2a$10$NVrWrrVh/L5vWXeqYLYoDe1F7T2jXE/c.RAtHi8bVYVBUdFmfc7QC', '系统管理员', 'admin@enterprise.com', 1, 1, 1);
 
 -- 插入默认角色
 INSERT IGNORE INTO `sys_role` (`id`, `role_name`, `role_code`, `description`, `create_by`, `update_by`) 
@@ -155,14 +190,14 @@ INSERT IGNORE INTO `sys_user_role` (`user_id`, `role_id`, `create_by`)
 VALUES (1, 1, 1);
 
 -- 插入基础权限
-INSERT IGNORE INTO `sys_permission` (`id`, `parent_id`, `permission_name`, `permission_code`, `permission_type`, `path`, `method`, `sort_order`, `create_by`, `update_by`) 
+INSERT IGNORE INTO `sys_permission` (`id`, `parent_id`, `tree_path`, `permission_name`, `permission_code`, `permission_type`, `path`, `method`, `sort_order`, `create_by`, `update_by`) 
 VALUES 
-(1, 0, '系统管理', 'system', 1, '/system', NULL, 1, 1, 1),
-(2, 1, '用户管理', 'system:user', 1, '/system/user', NULL, 1, 1, 1),
-(3, 2, '用户查询', 'system:user:query', 3, '/api/users', 'GET', 1, 1, 1),
-(4, 2, '用户新增', 'system:user:add', 3, '/api/users', 'POST', 2, 1, 1),
-(5, 2, '用户修改', 'system:user:edit', 3, '/api/users/*', 'PUT', 3, 1, 1),
-(6, 2, '用户删除', 'system:user:delete', 3, '/api/users/*', 'DELETE', 4, 1, 1);
+(1, 0, '/1/', '系统管理', 'system', 1, '/system', NULL, 1, 1, 1),
+(2, 1, '/1/2/', '用户管理', 'system:user', 1, '/system/user', NULL, 1, 1, 1),
+(3, 2, '/1/2/3/', '用户查询', 'system:user:query', 3, '/api/users', 'GET', 1, 1, 1),
+(4, 2, '/1/2/4/', '用户新增', 'system:user:add', 3, '/api/users', 'POST', 2, 1, 1),
+(5, 2, '/1/2/5/', '用户修改', 'system:user:edit', 3, '/api/users/*', 'PUT', 3, 1, 1),
+(6, 2, '/1/2/6/', '用户删除', 'system:user:delete', 3, '/api/users/*', 'DELETE', 4, 1, 1);
 
 -- 插入角色权限关联
 INSERT IGNORE INTO `sys_role_permission` (`role_id`, `permission_id`, `create_by`) 
@@ -171,6 +206,13 @@ VALUES
 (2, 2, 1), (2, 3, 1), (2, 4, 1), (2, 5, 1),
 (3, 3, 1);
 
+-- 生成用户有效权限
+INSERT IGNORE INTO `sys_user_permission` (`user_id`, `permission_id`, `grant_count`)
+SELECT ur.user_id, rp.permission_id, COUNT(*)
+FROM sys_user_role ur
+INNER JOIN sys_role_permission rp ON rp.role_id = ur.role_id
+GROUP BY ur.user_id, rp.permission_id;
+
 -- 插入系统配置
 INSERT IGNORE INTO `sys_config` (`config_key`, `config_value`, `config_type`, `description`, `is_system`, `create_by`, `update_by`) 
 VALUES 
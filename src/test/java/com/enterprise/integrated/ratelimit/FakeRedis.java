@@ -0,0 +1,214 @@
+package com.enterprise.integrated.ratelimit;
+
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.List;
+
+/**
+ * 内存中的限流 Redis：逐行按 {@link RateLimitScripts} 中各脚本的语义执行（整体加锁，与 Redis 单线程执行脚本一致）
+ * <p>
+ * 服务器时间（脚本中的 {@code TIME}）与键过期由可手动推进的时钟控制，{@link #currentTimeMillis()}
+ * 可作为限流器的时钟，使窗口交界、GCRA 理论到达时间与在途许可过期可以精确测试。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+final class FakeRedis extends StringRedisTemplate {
+
+    /** 窗口计数键（固定窗口、滑动窗口） */
+    final Map<String, Long> counters = new HashMap<>();
+    /** GCRA 键的理论到达时间（微秒） */
+    final Map<String, Long> tats = new HashMap<>();
+    /** 在途许可：键 -> 许可ID -> 期限（毫秒） */
+    final Map<String, Map<String, Long>> inflight = new HashMap<>();
+    /** 键过期时间（微秒） */
+    private final Map<String, Long> expireAt = new HashMap<>();
+    volatile boolean down;
+    int failures;
+    /** 服务器时间（微秒） */
+    private long nowMicros;
+
+    FakeRedis() {
+        this(0);
+    }
+
+    FakeRedis(long startMillis) {
+        this.nowMicros = startMillis * 1000;
+    }
+
+    synchronized long currentTimeMillis() {
+        return nowMicros / 1000;
+    }
+
+    synchronized void advanceMillis(long millis) {
+        nowMicros += millis * 1000;
+    }
+
+    synchronized long total() {
+        return counters.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    synchronized Long tat(String key) {
+        expire(key);
+        return tats.get(key);
+    }
+
+    synchronized int inflightCount(String key) {
+        Map<String, Long> members = inflight.get(key);
+        return members == null ? 0 : members.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        if (down) {
+            failures++;
+            throw new RedisConnectionFailureException("redis down");
+        }
+        keys.forEach(this::expire);
+        return (T) Long.valueOf(run(script, keys, args));
+    }
+
+    /**
+     * 并发许可释放（{@code ZREM}）
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ZSetOperations<String, String> opsForZSet() {
+        return (ZSetOperations<String, String>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ZSetOperations.class}, (proxy, method, args) -> {
+                    if (!"remove".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    synchronized (this) {
+                        if (down) {
+                            failures++;
+                            throw new RedisConnectionFailureException("redis down");
+                        }
+                        Map<String, Long> members = inflight.get((String) args[0]);
+                        long removed = 0;
+                        for (Object member : (Object[]) args[1]) {
+                            if (members != null && members.remove(String.valueOf(member)) != null) {
+                                removed++;
+                            }
+                        }
+                        return removed;
+                    }
+                });
+    }
+
+    private long run(RedisScript<?> script, List<String> keys, Object[] args) {
+        String key = keys.get(0);
+        if (script == RateLimitScripts.LEASE) {
+            long used = counters.getOrDefault(key, 0L);
+            long grant = Math.min(arg(args, 1), arg(args, 0) - used);
+            if (grant <= 0) {
+                return 0;
+            }
+            incrementBy(key, grant, arg(args, 2));
+            return grant;
+        }
+        if (script == RateLimitScripts.RELEASE) {
+            Long used = counters.get(key);
+            if (used == null) {
+                return -1;
+            }
+            long left = Math.max(0, used - arg(args, 0));
+            counters.put(key, left);
+            return left;
+        }
+        if (script == RateLimitScripts.SLIDING_LEASE) {
+            long current = counters.getOrDefault(key, 0L);
+            long previous = counters.getOrDefault(keys.get(1), 0L);
+            double estimated = previous * Double.parseDouble((String) args[2]) + current;
+            long grant = Math.min(arg(args, 1), (long) Math.floor(arg(args, 0) - estimated));
+            if (grant <= 0) {
+                return 0;
+            }
+            incrementBy(key, grant, arg(args, 3));
+            return grant;
+        }
+        if (script == RateLimitScripts.GCRA_LEASE) {
+            double interval = Double.parseDouble((String) args[0]);
+            long tat = Math.max(tats.getOrDefault(key, 0L), nowMicros);
+            long grant = Math.min(arg(args, 2), (long) Math.floor((nowMicros + arg(args, 1) - tat) / interval));
+            if (grant <= 0) {
+                return 0;
+            }
+            setTat(key, Math.round(tat + grant * interval));
+            return grant;
+        }
+        if (script == RateLimitScripts.GCRA_RELEASE) {
+            Long stored = tats.get(key);
+            if (stored == null) {
+                return -1;
+            }
+            double tat = stored - arg(args, 0) * Double.parseDouble((String) args[1]);
+            if (tat <= nowMicros) {
+                tats.remove(key);
+                expireAt.remove(key);
+                return 0;
+            }
+            setTat(key, Math.round(tat));
+            return 1;
+        }
+        if (script == RateLimitScripts.CONCURRENCY_ACQUIRE) {
+            long nowMillis = nowMicros / 1000;
+            Map<String, Long> members = inflight.computeIfAbsent(key, k -> new HashMap<>());
+            members.values().removeIf(deadline -> deadline <= nowMillis);
+            if (members.size() >= arg(args, 0)) {
+                return 0;
+            }
+            members.put((String) args[2], nowMillis + arg(args, 1));
+            expireAt.put(key, nowMicros + arg(args, 1) * 1000);
+            return 1;
+        }
+        if (script == RateLimitScripts.NODE_HEARTBEAT) {
+            long nowMillis = nowMicros / 1000;
+            Map<String, Long> nodes = inflight.computeIfAbsent(key, k -> new HashMap<>());
+            nodes.put((String) args[0], nowMillis);
+            nodes.values().removeIf(seen -> seen <= nowMillis - arg(args, 1));
+            expireAt.put(key, nowMicros + arg(args, 1) * 1000);
+            return nodes.size();
+        }
+        throw new IllegalArgumentException("unknown script");
+    }
+
+    /**
+     * {@code INCRBY}，结果等于增量（即新建的键）时设置过期时间
+     */
+    private void incrementBy(String key, long grant, long expireMs) {
+        long value = counters.merge(key, grant, Long::sum);
+        if (value == grant) {
+            expireAt.put(key, nowMicros + expireMs * 1000);
+        }
+    }
+
+    /**
+     * {@code SET key tat PX ceil((tat - now) / 1000)}
+     */
+    private void setTat(String key, long tat) {
+        tats.put(key, tat);
+        expireAt.put(key, nowMicros + (tat - nowMicros + 999) / 1000 * 1000);
+    }
+
+    private void expire(String key) {
+        Long deadline = expireAt.get(key);
+        if (deadline != null && deadline <= nowMicros) {
+            expireAt.remove(key);
+            counters.remove(key);
+            tats.remove(key);
+            inflight.remove(key);
+        }
+    }
+
+    private static long arg(Object[] args, int index) {
+        return Long.parseLong((String) args[index]);
+    }
+}
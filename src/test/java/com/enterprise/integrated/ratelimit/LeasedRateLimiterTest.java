@@ -0,0 +1,134 @@
+package com.enterprise.integrated.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 两级限流精度测试：多个限流器实例（模拟多节点）共享一份内存计数，按租借/归还脚本的语义执行；
+ * 另验证 Redis 故障时按节点份额降级与恢复
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+class LeasedRateLimiterTest {
+
+    /** 足够长的窗口，测试期间不会跨窗口 */
+    private static final long WINDOW_MS = TimeUnit.DAYS.toMillis(36500);
+
+    private static final int LIMIT = 1000;
+
+    @Test
+    void admitsExactlyLimitWhenDemandExceedsIt() throws InterruptedException {
+        for (int shards : new int[]{1, 8}) {
+            FakeRedis redis = new FakeRedis();
+            int admitted = runNodes(nodes(redis, 4), 3, LIMIT, "hot", LIMIT, shards);
+            assertEquals(LIMIT, admitted, "shards=" + shards);
+            assertEquals(LIMIT, redis.total());
+            assertShardBudgets(redis, shards);
+        }
+    }
+
+    @Test
+    void returnsUnusedLeasesWhenDemandIsBelowLimit() throws InterruptedException {
+        FakeRedis redis = new FakeRedis();
+        List<LeasedRateLimiter> nodes = nodes(redis, 4);
+        int admitted = runNodes(nodes, 2, 100, "warm", LIMIT, 8);
+        assertEquals(800, admitted);
+        // 已租未用的许可不超过 节点数 × 单次租借上限
+        int maxChunk = Math.max(1, (LIMIT / 8) / 10);
+        assertTrue(redis.total() - admitted <= nodes.size() * maxChunk, "leased=" + redis.total());
+
+        for (LeasedRateLimiter node : nodes) {
+            node.returnIdleLeases();
+        }
+        assertEquals(admitted, redis.total());
+    }
+
+    @Test
+    void shardCountIsCappedByLimit() throws InterruptedException {
+        FakeRedis redis = new FakeRedis();
+        int admitted = runNodes(nodes(redis, 3), 1, 20, "tiny", 5, 8);
+        assertEquals(5, admitted);
+        assertTrue(redis.counters.size() <= 5);
+        redis.counters.values().forEach(count -> assertEquals(1L, count));
+    }
+
+    private int runNodes(List<LeasedRateLimiter> nodes, int threadsPerNode, int attemptsPerThread,
+                         String key, int limit, int shards) throws InterruptedException {
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (LeasedRateLimiter node : nodes) {
+            for (int t = 0; t < threadsPerNode; t++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (node.tryAcquire("rate_limit:" + key + ":global", limit, WINDOW_MS, shards)) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return admitted.get();
+    }
+
+    @Test
+    void fallsBackToNodeShareWhileRedisIsDownAndRecovers() throws InterruptedException {
+        FakeRedis redis = new FakeRedis();
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(3, 500);
+        LeasedRateLimiter node = limiter(redis, breaker, 4);
+
+        redis.down = true;
+        int admitted = runNodes(List.of(node), 1, 100, "down", 20, 1);
+        // 已知 4 个节点时，本节点份额为 ceil(20 / 4)
+        assertEquals(5, admitted);
+        assertTrue(breaker.isOpen());
+        assertEquals(3, redis.failures, "熔断后不再访问 Redis");
+
+        redis.down = false;
+        // 熔断时间到后由下一次调用探测，成功即恢复全局计数
+        Thread.sleep(600);
+        assertTrue(node.tryAcquire("rate_limit:up:global", 20, WINDOW_MS, 1));
+        assertFalse(breaker.isOpen());
+        assertEquals(1, redis.total());
+    }
+
+    private List<LeasedRateLimiter> nodes(FakeRedis redis, int count) {
+        List<LeasedRateLimiter> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(limiter(redis, new RedisCircuitBreaker(3, 5000), 1));
+        }
+        return nodes;
+    }
+
+    private LeasedRateLimiter limiter(FakeRedis redis, RedisCircuitBreaker breaker, int assumedNodes) {
+        return new LeasedRateLimiter(redis, breaker, new LocalFallbackLimiter(redis, breaker, 5000, assumedNodes, 1000),
+                10, 100, 0, 1000);
+    }
+
+    private void assertShardBudgets(FakeRedis redis, int shards) {
+        assertTrue(redis.counters.size() <= shards);
+        redis.counters.forEach((key, count) -> assertTrue(count <= LIMIT / shards + 1, key + "=" + count));
+    }
+}
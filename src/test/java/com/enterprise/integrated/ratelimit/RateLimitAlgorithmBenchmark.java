@@ -0,0 +1,168 @@
+package com.enterprise.integrated.ratelimit;
+
+import com.enterprise.integrated.annotation.RateLimit;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 限流算法基准：Redis 调用次数、每键内存与突发下的放行平滑度
+ * <p>
+ * 对每种算法以相同的突发流量（每秒在窗口交界前后 400ms 内对热点键请求 2 倍额度，其余时间空闲）运行若干秒，输出：
+ * 请求数、放行数、脚本调用次数（即 Redis 往返次数）、任意 1 秒内的最大放行数（衡量窗口交界突发），
+ * 以及 {@code MEMORY USAGE} 统计的每键内存。分别测试租借（默认 {@code lease-divisor}）与不租借（每次请求访问 Redis）。
+ * 需要可访问的 Redis（默认 localhost:6379，可用参数 {@code host port} 指定），运行方式同
+ * {@code PermissionEvaluationBenchmark}：
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.enterprise.integrated.ratelimit.RateLimitAlgorithmBenchmark}。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+public class RateLimitAlgorithmBenchmark {
+
+    private static final int LIMIT = 1000;
+    private static final long WINDOW_MS = 1000;
+    private static final int KEYS = 100;
+    private static final int SECONDS = 5;
+    private static final long BURST_MS = 400;
+    private static final String PREFIX = "rate_limit:bench:";
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 6379;
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        factory.afterPropertiesSet();
+        try {
+            System.out.printf("%-16s %-8s %10s %10s %12s %14s %12s%n",
+                    "algorithm", "lease", "requests", "admitted", "redis calls", "max per 1s", "bytes/key");
+            for (RateLimit.Algorithm algorithm : new RateLimit.Algorithm[]{
+                    RateLimit.Algorithm.FIXED_WINDOW, RateLimit.Algorithm.SLIDING_WINDOW, RateLimit.Algorithm.GCRA}) {
+                run(factory, algorithm, 10);
+                run(factory, algorithm, LIMIT);
+            }
+            runConcurrency(factory);
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static void run(LettuceConnectionFactory factory, RateLimit.Algorithm algorithm, int leaseDivisor)
+            throws InterruptedException {
+        cleanUp(factory);
+        CountingTemplate template = new CountingTemplate(factory);
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(3, 5000);
+        LeasedRateLimiter limiter = new LeasedRateLimiter(template, breaker,
+                new LocalFallbackLimiter(template, breaker, 5000, 1, 100000), leaseDivisor, 100, 1000, 100000);
+        long requests = 0;
+        List<Long> admittedAt = new ArrayList<>();
+        for (int second = 0; second < SECONDS; second++) {
+            // 每秒在窗口开始后 800ms 发起突发：400ms 内对热点键请求 2 倍额度，跨越窗口交界
+            Thread.sleep((WINDOW_MS - System.currentTimeMillis() % WINDOW_MS + 800) % WINDOW_MS);
+            long burstStart = System.currentTimeMillis();
+            for (int i = 0; i < LIMIT * 2; i++) {
+                requests++;
+                if (limiter.tryAcquire(PREFIX + "hot", LIMIT, WINDOW_MS, 1, algorithm)) {
+                    admittedAt.add(System.currentTimeMillis());
+                }
+                if (i % 10 == 9) {
+                    Thread.sleep(Math.max(0, burstStart + i * BURST_MS / (LIMIT * 2L) - System.currentTimeMillis()));
+                }
+            }
+            // 其余键每秒各请求一次，用于统计每键内存
+            for (int k = 0; k < KEYS; k++) {
+                requests++;
+                limiter.tryAcquire(PREFIX + k, LIMIT, WINDOW_MS, 1, algorithm);
+            }
+        }
+        System.out.printf("%-16s %-8s %10d %10d %12d %14d %12d%n", algorithm, leaseDivisor == LIMIT ? "off" : "on",
+                requests, admittedAt.size(), template.calls.get(), maxInAnySecond(admittedAt), bytesPerKey(factory));
+    }
+
+    private static void runConcurrency(LettuceConnectionFactory factory) {
+        cleanUp(factory);
+        CountingTemplate template = new CountingTemplate(factory);
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(3, 5000);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(template, breaker,
+                new LocalFallbackLimiter(template, breaker, 5000, 1, 100000));
+        List<String> permits = new ArrayList<>();
+        for (int i = 0; i < LIMIT; i++) {
+            permits.add(limiter.tryAcquire(PREFIX + "hot", LIMIT, 60000));
+        }
+        long bytes = bytesPerKey(factory);
+        for (String permit : permits) {
+            limiter.release(PREFIX + "hot", permit);
+        }
+        System.out.printf("%-16s %-8s %10d %10d %12s %14s %12d%n", RateLimit.Algorithm.CONCURRENCY, "-",
+                LIMIT, permits.stream().filter(Objects::nonNull).count(), template.calls.get() + "+" + LIMIT,
+                "-", bytes);
+    }
+
+    private static long maxInAnySecond(List<Long> times) {
+        long max = 0;
+        int from = 0;
+        for (int to = 0; to < times.size(); to++) {
+            while (times.get(to) - times.get(from) >= 1000) {
+                from++;
+            }
+            max = Math.max(max, to - from + 1);
+        }
+        return max;
+    }
+
+    private static long bytesPerKey(LettuceConnectionFactory factory) {
+        try (RedisConnection connection = factory.getConnection();
+             Cursor<byte[]> cursor = connection.keyCommands()
+                     .scan(ScanOptions.scanOptions().match("*bench*").count(1000).build())) {
+            long keys = 0;
+            long bytes = 0;
+            while (cursor.hasNext()) {
+                byte[] key = cursor.next();
+                Object usage = connection.execute("MEMORY", "USAGE".getBytes(StandardCharsets.UTF_8), key);
+                if (usage instanceof Long value) {
+                    bytes += value;
+                    keys++;
+                }
+            }
+            return keys == 0 ? 0 : bytes / keys;
+        }
+    }
+
+    private static void cleanUp(LettuceConnectionFactory factory) {
+        StringRedisTemplate template = new StringRedisTemplate(factory);
+        try (RedisConnection connection = factory.getConnection();
+             Cursor<byte[]> cursor = connection.keyCommands()
+                     .scan(ScanOptions.scanOptions().match("*bench*").count(1000).build())) {
+            while (cursor.hasNext()) {
+                template.delete(new String(cursor.next(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * 统计脚本调用次数
+     */
+    private static final class CountingTemplate extends StringRedisTemplate {
+
+        private final AtomicLong calls = new AtomicLong();
+
+        private CountingTemplate(LettuceConnectionFactory factory) {
+            super(factory);
+        }
+
+        @Override
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            calls.incrementAndGet();
+            return super.execute(script, keys, args);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.enterprise.integrated.ratelimit;
+
+import com.enterprise.integrated.annotation.RateLimit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 限流算法语义测试：固定窗口交界突发、滑动窗口的上一窗口加权、GCRA 理论到达时间的推进与归还、并发许可的释放与过期
+ * <p>
+ * 使用 {@link FakeRedis} 的可推进时钟同时驱动限流器的窗口划分与脚本中的服务器时间；
+ * 除专门测试租借归还的用例外，租借上限为 1 个许可，每次请求都按脚本计算。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+class RateLimitAlgorithmTest {
+
+    /** 与 1 秒、1 分钟窗口对齐的起始时间 */
+    private static final long START_MS = 1_800_000_000_000L;
+
+    private static final int LIMIT = 10;
+
+    private static final long WINDOW_MS = 1000;
+
+    private static final String KEY = "rate_limit:test:global";
+
+    @Test
+    void fixedWindowAdmitsTwiceTheLimitAcrossABoundary() {
+        FakeRedis redis = new FakeRedis(START_MS + 900);
+        LeasedRateLimiter node = limiter(redis, LIMIT);
+
+        assertEquals(LIMIT, acquire(node, 20, RateLimit.Algorithm.FIXED_WINDOW));
+        redis.advanceMillis(100);
+        assertEquals(LIMIT, acquire(node, 20, RateLimit.Algorithm.FIXED_WINDOW));
+    }
+
+    @Test
+    void slidingWindowWeightsThePreviousWindow() {
+        FakeRedis redis = new FakeRedis(START_MS + 900);
+        LeasedRateLimiter node = limiter(redis, LIMIT);
+
+        assertEquals(LIMIT, acquire(node, 20, RateLimit.Algorithm.SLIDING_WINDOW));
+        // 新窗口过去 100ms：上一窗口权重 0.9，估算 10 * 0.9 = 9
+        redis.advanceMillis(200);
+        assertEquals(1, acquire(node, 20, RateLimit.Algorithm.SLIDING_WINDOW));
+        // 过去 500ms：估算 10 * 0.5 + 1 = 6
+        redis.advanceMillis(400);
+        assertEquals(4, acquire(node, 20, RateLimit.Algorithm.SLIDING_WINDOW));
+        // 再下一个窗口开始：上一窗口（计数 5）权重 1
+        redis.advanceMillis(500);
+        assertEquals(5, acquire(node, 20, RateLimit.Algorithm.SLIDING_WINDOW));
+        assertEquals(5L, redis.counters.get(slidingKey(START_MS / WINDOW_MS + 1)));
+        assertEquals(5L, redis.counters.get(slidingKey(START_MS / WINDOW_MS + 2)));
+    }
+
+    @Test
+    void slidingWindowReturnsUnusedLeases() {
+        FakeRedis redis = new FakeRedis(START_MS);
+        LeasedRateLimiter node = limiter(redis, 1);
+
+        // 慢启动租借 1 + 2 + 4 = 7 个，使用 4 个
+        assertEquals(4, acquire(node, 4, RateLimit.Algorithm.SLIDING_WINDOW));
+        assertEquals(7L, redis.counters.get(slidingKey(START_MS / WINDOW_MS)));
+        node.returnIdleLeases();
+        assertEquals(4L, redis.counters.get(slidingKey(START_MS / WINDOW_MS)));
+    }
+
+    @Test
+    void gcraSpacesAdmissionsByEmissionInterval() {
+        FakeRedis redis = new FakeRedis(START_MS + 900);
+        LeasedRateLimiter node = limiter(redis, LIMIT);
+        long start = (START_MS + 900) * 1000;
+
+        // 突发容量为一个窗口：10 个许可，TAT 前进 10 个发放间隔（100ms）
+        assertEquals(LIMIT, acquire(node, 20, RateLimit.Algorithm.GCRA));
+        assertEquals(start + 1_000_000, redis.tat(KEY + ":gcra"));
+        // 跨过秒级交界也不会出现第二次突发
+        redis.advanceMillis(99);
+        assertEquals(0, acquire(node, 20, RateLimit.Algorithm.GCRA));
+        redis.advanceMillis(1);
+        assertEquals(1, acquire(node, 20, RateLimit.Algorithm.GCRA));
+        redis.advanceMillis(350);
+        assertEquals(3, acquire(node, 20, RateLimit.Algorithm.GCRA));
+        assertEquals(start + 1_400_000, redis.tat(KEY + ":gcra"));
+    }
+
+    @Test
+    void gcraReleaseRewindsTheoreticalArrivalTime() {
+        FakeRedis redis = new FakeRedis(START_MS);
+        LeasedRateLimiter leasing = limiter(redis, 1);
+        long start = START_MS * 1000;
+
+        // 慢启动租借 1 + 2 + 4 = 7 个，使用 4 个，归还 3 个后 TAT 回退 3 个发放间隔
+        assertEquals(4, acquire(leasing, 4, RateLimit.Algorithm.GCRA));
+        assertEquals(start + 700_000, redis.tat(KEY + ":gcra"));
+        leasing.returnIdleLeases();
+        assertEquals(start + 400_000, redis.tat(KEY + ":gcra"));
+        assertEquals(6, acquire(limiter(redis, LIMIT), 20, RateLimit.Algorithm.GCRA));
+    }
+
+    @Test
+    void gcraReleaseBeforeNowDeletesTheKey() {
+        FakeRedis redis = new FakeRedis(START_MS);
+        LeasedRateLimiter leasing = limiter(redis, 1);
+
+        // 租借 1 + 2 = 3 个，使用 2 个；250ms 后归还 1 个，TAT 回退到当前时间之前
+        assertEquals(2, acquire(leasing, 2, RateLimit.Algorithm.GCRA));
+        redis.advanceMillis(250);
+        leasing.returnIdleLeases();
+        assertNull(redis.tat(KEY + ":gcra"));
+        assertEquals(LIMIT, acquire(limiter(redis, LIMIT), 20, RateLimit.Algorithm.GCRA));
+    }
+
+    @Test
+    void concurrencyReleasesAndExpiresInflightPermits() {
+        FakeRedis redis = new FakeRedis(START_MS);
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(3, 5000);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(redis, breaker,
+                new LocalFallbackLimiter(redis, breaker, 5000, 1, 1000));
+        String inflightKey = KEY + ":inflight";
+
+        String first = limiter.tryAcquire(KEY, 2, 1000);
+        assertNotNull(first);
+        assertNotNull(limiter.tryAcquire(KEY, 2, 1000));
+        assertNull(limiter.tryAcquire(KEY, 2, 1000));
+
+        limiter.release(KEY, first);
+        assertEquals(1, redis.inflightCount(inflightKey));
+        assertNotNull(limiter.tryAcquire(KEY, 2, 1000));
+        assertNull(limiter.tryAcquire(KEY, 2, 1000));
+
+        // 未释放的许可在最长持有期限到达时失效
+        redis.advanceMillis(999);
+        assertNull(limiter.tryAcquire(KEY, 2, 1000));
+        redis.advanceMillis(1);
+        assertNotNull(limiter.tryAcquire(KEY, 2, 1000));
+        assertEquals(1, redis.inflightCount(inflightKey));
+    }
+
+    private static LeasedRateLimiter limiter(FakeRedis redis, int leaseDivisor) {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(3, 5000);
+        return new LeasedRateLimiter(redis, breaker, new LocalFallbackLimiter(redis, breaker, 5000, 1, 1000),
+                leaseDivisor, 0, 0, 1000, redis::currentTimeMillis);
+    }
+
+    private static int acquire(LeasedRateLimiter node, int attempts, RateLimit.Algorithm algorithm) {
+        int admitted = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (node.tryAcquire(KEY, LIMIT, WINDOW_MS, 1, algorithm)) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    private static String slidingKey(long windowId) {
+        return "{" + KEY + "}:sw:" + windowId;
+    }
+}
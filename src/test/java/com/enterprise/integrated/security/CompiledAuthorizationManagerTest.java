@@ -0,0 +1,236 @@
+package com.enterprise.integrated.security;
+
+import com.enterprise.integrated.entity.User;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 预编译鉴权与 Spring Security 默认 SpEL 鉴权（{@link PreAuthorizeAuthorizationManager}）的一致性测试
+ * <p>
+ * 覆盖控制器中使用的表达式形式与必须整体回退 SpEL 的形式，在快照主体、非快照主体、匿名与未认证主体下逐一比较决策
+ * （表达式计算失败时两者都应抛出异常）。
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+class CompiledAuthorizationManagerTest {
+
+    private final PermissionInterner interner = new PermissionInterner(null, null);
+    private final CompiledAuthorizationManager compiled = new CompiledAuthorizationManager(interner);
+    private final PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+    private final Endpoints target = new Endpoints();
+
+    @Test
+    void compiledDecisionsMatchSpel() throws NoSuchMethodException {
+        Map<String, Authentication> principals = principals();
+        List<String> mismatches = new ArrayList<>();
+        int compared = 0;
+        for (Method method : Endpoints.class.getDeclaredMethods()) {
+            for (Object[] args : argumentsFor(method)) {
+                MethodInvocation invocation = new SimpleMethodInvocation(target, method, args);
+                for (Map.Entry<String, Authentication> principal : principals.entrySet()) {
+                    Authentication auth = principal.getValue();
+                    String expected = outcome(() -> spel.check(() -> auth, invocation));
+                    String actual = outcome(() -> compiled.check(() -> auth, invocation));
+                    compared++;
+                    if (!expected.equals(actual)) {
+                        mismatches.add(method.getName() + List.of(args) + " as " + principal.getKey()
+                                + ": spel=" + expected + ", compiled=" + actual);
+                    }
+                }
+            }
+        }
+        assertTrue(compared > 100);
+        assertEquals(List.of(), mismatches);
+    }
+
+    @Test
+    void controllerExpressionsGrantAsExpected() throws NoSuchMethodException {
+        Map<String, Authentication> principals = principals();
+
+        assertEquals("true", decide("list", principals.get("admin-seed")));
+        assertEquals("true", decide("list", principals.get("querier")));
+        assertEquals("false", decide("list", principals.get("user-7")));
+        assertEquals("true", decide("list", principals.get("plain-admin")));
+        assertEquals("false", decide("list", principals.get("anonymous")));
+
+        assertEquals("true", decide("me", principals.get("user-7")));
+        assertEquals("false", decide("me", principals.get("anonymous")));
+        // SpEL 的 isAuthenticated() 只排除匿名，不检查 Authentication#isAuthenticated()
+        assertEquals("true", decide("me", principals.get("unauthenticated")));
+
+        assertEquals("true", decide("get", principals.get("user-7"), 7L));
+        assertEquals("false", decide("get", principals.get("user-7"), 8L));
+        assertEquals("true", decide("get", principals.get("admin-seed"), 8L));
+        assertEquals("error", decide("get", principals.get("plain-user"), 8L));
+    }
+
+    @Test
+    void onlyPlainDisjunctionsAreCompiled() throws NoSuchMethodException {
+        for (String name : new String[]{"list", "me", "anyOf", "prefixedRole", "permit", "deny"}) {
+            assertFalse(ruleFor(name).isFallback(), name);
+        }
+        for (String name : new String[]{"get", "grouped", "both", "negated", "bang", "notEqual"}) {
+            assertTrue(ruleFor(name).isFallback(), name);
+        }
+        // 含 and / not / != 的表达式不能由已编译部分放行
+        Authentication admin = principals().get("admin-seed");
+        assertEquals("false", decide("negated", admin));
+        assertEquals("false", decide("bang", admin));
+        assertEquals("false", decide("both", admin));
+    }
+
+    private PreAuthorizeRule ruleFor(String name) throws NoSuchMethodException {
+        Method method = findMethod(name);
+        return compiled.ruleFor(new SimpleMethodInvocation(target, method, argumentsFor(method).get(0)));
+    }
+
+    private String decide(String name, Authentication auth, Object... args) throws NoSuchMethodException {
+        Method method = findMethod(name);
+        Object[] actualArgs = args.length == 0 ? argumentsFor(method).get(0) : args;
+        MethodInvocation invocation = new SimpleMethodInvocation(target, method, actualArgs);
+        String expected = outcome(() -> spel.check(() -> auth, invocation));
+        String actual = outcome(() -> compiled.check(() -> auth, invocation));
+        assertEquals(expected, actual, name + " spel/compiled");
+        return actual;
+    }
+
+    private static Method findMethod(String name) throws NoSuchMethodException {
+        for (Method method : Endpoints.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    private static List<Object[]> argumentsFor(Method method) {
+        if (method.getParameterCount() == 0) {
+            return List.<Object[]>of(new Object[0]);
+        }
+        return List.of(new Object[]{1L}, new Object[]{7L}, new Object[]{8L});
+    }
+
+    private static String outcome(Supplier<AuthorizationDecision> decision) {
+        try {
+            AuthorizationDecision result = decision.get();
+            return result == null ? "abstain" : String.valueOf(result.isGranted());
+        } catch (RuntimeException e) {
+            return "error";
+        }
+    }
+
+    private Map<String, Authentication> principals() {
+        Map<String, Authentication> principals = new LinkedHashMap<>();
+        // 种子数据中的角色编码带 ROLE_ 前缀
+        principals.put("admin-seed", snapshotUser(1L, "ROLE_ADMIN"));
+        principals.put("super-admin", snapshotUser(2L, "ROLE_SUPER_ADMIN"));
+        principals.put("querier", snapshotUser(3L, "ROLE_USER", "perm:system:user:query"));
+        principals.put("user-7", snapshotUser(7L, "ROLE_USER"));
+        // 不带前缀的角色编码不满足 hasRole('ADMIN')
+        principals.put("unprefixed-admin", snapshotUser(9L, "ADMIN"));
+        principals.put("plain-admin", UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        principals.put("plain-user", UsernamePasswordAuthenticationToken.authenticated("user", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER", "perm:unknown")));
+        principals.put("spring-user", UsernamePasswordAuthenticationToken.authenticated(
+                org.springframework.security.core.userdetails.User.withUsername("spring").password("x")
+                        .authorities("perm:system:user:query").build(),
+                null, AuthorityUtils.createAuthorityList("perm:system:user:query")));
+        principals.put("anonymous", new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        principals.put("unauthenticated", UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+        return principals;
+    }
+
+    private Authentication snapshotUser(Long userId, String... codes) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setPassword("x");
+        user.setStatus(1);
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String code : codes) {
+            authorities.add(new SimpleGrantedAuthority(code));
+        }
+        AuthoritySnapshot snapshot = new AuthoritySnapshot(userId, 0, List.of(userId), authorities,
+                interner.toBits(List.of(codes)));
+        UserDetailsServiceImpl.CustomUserDetails details = new UserDetailsServiceImpl.CustomUserDetails(user, snapshot);
+        return UsernamePasswordAuthenticationToken.authenticated(details, null, details.getAuthorities());
+    }
+
+    /**
+     * 控制器中使用的表达式形式，以及需要整体回退 SpEL 的形式
+     */
+    static class Endpoints {
+
+        @PreAuthorize("hasAuthority('perm:system:user:query') or hasRole('ADMIN')")
+        public void list() {
+        }
+
+        @PreAuthorize("isAuthenticated()")
+        public void me() {
+        }
+
+        @PreAuthorize("hasAuthority('perm:system:user:query') or hasRole('ADMIN') or authentication.principal.userId == #id")
+        public void get(Long id) {
+        }
+
+        @PreAuthorize("hasAnyAuthority('perm:other', 'perm:system:user:query') or hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN')")
+        public void anyOf() {
+        }
+
+        @PreAuthorize("hasRole('ROLE_ADMIN')")
+        public void prefixedRole() {
+        }
+
+        @PreAuthorize("permitAll()")
+        public void permit() {
+        }
+
+        @PreAuthorize("denyAll()")
+        public void deny() {
+        }
+
+        @PreAuthorize("(hasAuthority('perm:system:user:query') or hasRole('ADMIN'))")
+        public void grouped() {
+        }
+
+        @PreAuthorize("hasAuthority('perm:system:user:query') and hasRole('ADMIN')")
+        public void both() {
+        }
+
+        @PreAuthorize("not hasRole('ADMIN')")
+        public void negated() {
+        }
+
+        @PreAuthorize("!hasRole('ADMIN')")
+        public void bang() {
+        }
+
+        @PreAuthorize("hasRole('ADMIN') or authentication.principal.userId != #id")
+        public void notEqual(Long id) {
+        }
+    }
+}
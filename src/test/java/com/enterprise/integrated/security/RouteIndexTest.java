@@ -0,0 +1,155 @@
+package com.enterprise.integrated.security;
+
+import com.enterprise.integrated.entity.Permission;
+import com.enterprise.integrated.mapper.PermissionMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 接口访问规则路由树测试：匹配优先级、按方法回退、正则路径段，以及编码路径与末尾斜杠不能绕过规则
+ *
+ * @author Enterprise Team
+ * @version 1.0.0
+ */
+class RouteIndexTest {
+
+    private final PermissionInterner interner = new PermissionInterner(null, null);
+
+    @Test
+    void prefersLiteralThenRegexThenSingleWildcardThenRest() {
+        RouteIndex index = build(
+                rule("/api/users/me", null, "literal"),
+                rule("/api/users/{id:\\d+}", null, "regex"),
+                rule("/api/users/*", null, "single"),
+                rule("/api/**", null, "rest"));
+
+        assertOnly(index, "GET", "/api/users/me", "literal");
+        assertOnly(index, "GET", "/api/users/42", "regex");
+        assertOnly(index, "GET", "/api/users/abc", "single");
+        assertOnly(index, "GET", "/api/users/42/roles", "rest");
+        assertOnly(index, "GET", "/api/orders", "rest");
+        assertOnly(index, "GET", "/api", "rest");
+        assertNull(index.requiredFor("GET", "/public/ping"));
+    }
+
+    @Test
+    void fallsBackToLessSpecificNodeWhenMethodHasNoRule() {
+        RouteIndex index = build(
+                rule("/api/roles", "GET", "role:read"),
+                rule("/api/roles", "", "role:any"),
+                rule("/api/users/me", "POST", "user:update"),
+                rule("/api/users/*", null, "user:view"));
+
+        assertTrue(allows(index, "GET", "/api/roles", "role:read"));
+        assertTrue(allows(index, "GET", "/api/roles", "role:any"));
+        assertFalse(allows(index, "POST", "/api/roles", "role:read"));
+        assertTrue(allows(index, "POST", "/api/roles", "role:any"));
+
+        assertOnly(index, "POST", "/api/users/me", "user:update");
+        assertOnly(index, "GET", "/api/users/me", "user:view");
+    }
+
+    @Test
+    void matchesSegmentPatternsAndVariables() {
+        RouteIndex index = build(
+                rule("/api/files/{name:[a-z]+}.json", null, "file:json"),
+                rule("/api/files/*.csv", null, "file:csv"),
+                rule("/api/files/{name}", null, "file:any"));
+
+        assertOnly(index, "GET", "/api/files/report.json", "file:json");
+        assertOnly(index, "GET", "/api/files/Report.json", "file:any");
+        assertOnly(index, "GET", "/api/files/2024.csv", "file:csv");
+        assertOnly(index, "GET", "/api/files/readme", "file:any");
+    }
+
+    @Test
+    void bypassAuthorityIsMergedIntoEveryRule() {
+        RouteIndex index = build(rule("/api/users/**", null, "user:view"));
+
+        assertTrue(allowsAuthority(index, "DELETE", "/api/users/1", "ROLE_ADMIN"));
+        assertFalse(allowsAuthority(index, "DELETE", "/api/users/1", "ROLE_USER"));
+    }
+
+    @Test
+    void encodedAndTrailingSlashPathsMatchTheSameRule() {
+        RouteIndex index = build(rule("/api/users", "GET", "user:view"), rule("/api/users/{id}", "GET", "user:view"));
+
+        for (String path : new String[]{"/api/users", "/api/users/", "/api/%75sers", "/api//users",
+                "/api/users;jsessionid=1", "/api/users/%31", "/api/users/1/"}) {
+            assertOnly(index, "GET", path, "user:view");
+        }
+    }
+
+    @Test
+    void authorizationManagerDeniesEncodedPathsWithoutPermission() {
+        PermissionMapper mapper = mock(PermissionMapper.class);
+        when(mapper.findRouteRulesFingerprint()).thenReturn("1@2024-01-01 00:00:00");
+        when(mapper.listRouteRules()).thenReturn(List.of(rule("/api/users/**", "GET", "user:view")));
+        RouteAuthorizationManager manager = new RouteAuthorizationManager(mapper, interner, true, List.of("ROLE_ADMIN"));
+        interner.intern("perm:user:view");
+
+        Authentication viewer = authenticated("perm:user:view");
+        Authentication other = authenticated("perm:order:view");
+        for (String uri : new String[]{"/api/users", "/api/users/", "/api/%75sers", "/api/%75sers/1",
+                "/api/users;x=1/1", "/%61pi/users/"}) {
+            assertTrue(manager.check(() -> viewer, context("GET", uri)).isGranted(), uri);
+            assertFalse(manager.check(() -> other, context("GET", uri)).isGranted(), uri);
+        }
+        assertTrue(manager.check(() -> other, context("GET", "/api/orders")).isGranted());
+    }
+
+    private RouteIndex build(Permission... rules) {
+        return RouteIndex.build(List.of(rules), interner, List.of("ROLE_ADMIN"));
+    }
+
+    private static Permission rule(String path, String method, String code) {
+        Permission permission = new Permission();
+        permission.setPath(path);
+        permission.setMethod(method);
+        permission.setPermissionCode(code);
+        return permission;
+    }
+
+    private boolean allows(RouteIndex index, String method, String path, String code) {
+        return allowsAuthority(index, method, path, "perm:" + code);
+    }
+
+    private boolean allowsAuthority(RouteIndex index, String method, String path, String authority) {
+        AuthorityBits required = index.requiredFor(method, path);
+        return required != null && required.intersects(interner.toBits(List.of(authority)));
+    }
+
+    /**
+     * 断言命中的规则恰好是 {@code code}（其他测试规则的权限均不满足）
+     */
+    private void assertOnly(RouteIndex index, String method, String path, String code) {
+        assertTrue(allows(index, method, path, code), method + " " + path + " -> " + code);
+        for (String other : new String[]{"literal", "regex", "single", "rest", "user:update", "user:view",
+                "file:json", "file:csv", "file:any"}) {
+            if (!other.equals(code)) {
+                assertFalse(allows(index, method, path, other), method + " " + path + " !-> " + other);
+            }
+        }
+    }
+
+    private static Authentication authenticated(String authority) {
+        return new UsernamePasswordAuthenticationToken("user", null, List.of(new SimpleGrantedAuthority(authority)));
+    }
+
+    private static RequestAuthorizationContext context(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        return new RequestAuthorizationContext(request);
+    }
+}